@@ -18,6 +18,13 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
 
+    // async controllers (CompletableFuture, SseEmitter) finish on an ASYNC
+    // dispatch, which needs the authentication re-established too
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -0,0 +1,45 @@
+package com.pranav.interviewai.config;
+
+import com.pranav.interviewai.controller.VoiceStreamHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final VoiceStreamHandler voiceStreamHandler;
+
+    @Value("${websocket.allowed-origins:*}")
+    private String[] allowedOrigins;
+
+    // MediaRecorder chunks are a few KB each; the container default is 8 KB
+    @Value("${interview.voice-stream.max-message-bytes:524288}")
+    private int maxMessageBytes;
+
+    @Value("${interview.voice-stream.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(voiceStreamHandler, "/ws/interview/voice")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(maxMessageBytes);
+        container.setMaxSessionIdleTimeout(idleTimeoutMs);
+
+        return container;
+    }
+}
@@ -2,27 +2,40 @@ package com.pranav.interviewai.controller;
 
 import com.pranav.interviewai.entity.User;
 import com.pranav.interviewai.repository.UserRepository;
+import com.pranav.interviewai.service.AtsBatchService;
 import com.pranav.interviewai.service.AtsService;
-import com.pranav.interviewai.service.ResumeParserService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/ats")
 @RequiredArgsConstructor
 public class AtsController {
 
-    private final ResumeParserService parserService;
     private final AtsService atsService;
+    private final AtsBatchService atsBatchService;
     private final UserRepository userRepo;
 
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${ats.batch.timeout-ms:600000}")
+    private long batchTimeoutMs;
+
     private User getCurrentUser() {
         String email = SecurityContextHolder
                 .getContext()
@@ -33,18 +46,74 @@ public class AtsController {
     }
 
     @PostMapping("/analyze")
-    public ResponseEntity<?> analyze(
+    public CompletableFuture<ResponseEntity<?>> analyze(
             @RequestParam("resume") MultipartFile resume,
-            @RequestParam("jobDescription") String jobDescription
+            @RequestParam("jobDescription") String jobDescription,
+            @RequestParam(value = "useLlm", defaultValue = "false") boolean useLlm
     ) throws Exception {
 
         User user = getCurrentUser(); 
 
-        String resumeText = parserService.extractText(resume);
+        return atsService.analyze(user.getId(), resume, jobDescription, useLlm)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Ranks the caller's own analyzed candidates against a job
+     * description, from the skill index; no resume is re-read and no LLM is
+     * called for them.
+     */
+    @PostMapping("/rank")
+    public CompletableFuture<ResponseEntity<?>> rank(
+            @RequestParam("jobDescription") String jobDescription,
+            @RequestParam(value = "useLlm", defaultValue = "false") boolean useLlm,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+
+        User user = getCurrentUser();
+
+        return atsService.rankCandidates(user.getId(), jobDescription, useLlm, Math.max(1, Math.min(limit, 500)))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Ranks many resumes (files or zips of them) against one job
+     * description. Streams one NDJSON line per resume as it is scored, then
+     * a summary line with the ranking and per-stage timings.
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter batch(
+            @RequestParam("resumes") List<MultipartFile> resumes,
+            @RequestParam("jobDescription") String jobDescription,
+            @RequestParam(value = "useLlm", defaultValue = "false") boolean useLlm
+    ) {
+
+        User user = getCurrentUser();
 
-        Map<String, Object> result =
-                atsService.analyze(resumeText, jobDescription);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeoutMs);
+
+        atsBatchService.rank(user.getId(), resumes, jobDescription, useLlm, line -> sendLine(emitter, line))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        try {
+                            sendLine(emitter, Map.of("type", "error", "error", String.valueOf(cause.getMessage())));
+                        } catch (UncheckedIOException e) {
+                            emitter.completeWithError(e);
+                            return;
+                        }
+                    }
+                    emitter.complete();
+                });
+
+        return emitter;
+    }
 
-        return ResponseEntity.ok(result);
+    private void sendLine(ResponseBodyEmitter emitter, Map<String, Object> line) {
+        try {
+            emitter.send(mapper.writeValueAsString(line) + "\n", MediaType.APPLICATION_NDJSON);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package com.pranav.interviewai.controller;
+
+import com.pranav.interviewai.service.AudioStore;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Plays back recordings from the {@link AudioStore}. An ID always names the
+ * same bytes, so the ID is the ETag and responses may be cached forever.
+ * A single byte range is served as 206, which is what lets a player seek
+ * without downloading the whole answer first.
+ */
+@RestController
+@RequestMapping("/audio")
+@RequiredArgsConstructor
+public class AudioController {
+
+    private static final int CHUNK = 64 * 1024;
+
+    private final AudioStore store;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StreamingResponseBody> play(
+            @PathVariable String id,
+            @RequestHeader HttpHeaders headers) {
+
+        if (!AudioStore.isValidId(id)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        AudioStore.AudioObject audio = store.find(id).orElse(null);
+        if (audio == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + id + "\"";
+        long length = audio.length();
+
+        if (matches(headers.getFirst(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl())
+                    .build();
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        String range = headers.getFirst(HttpHeaders.RANGE);
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+
+        // a stale If-Range means the client's copy differs: send it all
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            // several ranges would need multipart/byteranges; the whole
+            // file is a valid answer to that too
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    status = HttpStatus.PARTIAL_CONTENT;
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                            .build();
+                }
+            }
+        }
+
+        long offset = start;
+        long count = end - start + 1;
+
+        StreamingResponseBody body = out -> {
+            try (InputStream in = store.open(id, offset)) {
+                byte[] buffer = new byte[CHUNK];
+                long remaining = count;
+                while (remaining > 0) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .contentType(MediaType.parseMediaType(audio.contentType()))
+                .contentLength(count)
+                .eTag(etag)
+                .lastModified(audio.created())
+                .cacheControl(cacheControl())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        return response.body(body);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static CacheControl cacheControl() {
+        return CacheControl.maxAge(Duration.ofDays(365)).immutable();
+    }
+}
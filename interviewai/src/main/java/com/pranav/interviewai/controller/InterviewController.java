@@ -4,31 +4,33 @@ import com.pranav.interviewai.dto.StartInterviewRequest;
 import com.pranav.interviewai.dto.SubmitAnswerRequest;
 import com.pranav.interviewai.entity.Question;
 import com.pranav.interviewai.entity.Session;
-import com.pranav.interviewai.entity.InterviewAttempt;
 import com.pranav.interviewai.entity.User;
 import com.pranav.interviewai.repository.QuestionRepository;
 import com.pranav.interviewai.repository.SessionRepository;
-import com.pranav.interviewai.repository.InterviewAttemptRepository;
 import com.pranav.interviewai.repository.UserRepository;
+import com.pranav.interviewai.service.AudioStorageService;
 import com.pranav.interviewai.service.DeepgramService;
-import com.pranav.interviewai.service.GroqService;
 import com.pranav.interviewai.service.InterviewService;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.pranav.interviewai.service.VoiceEvaluationService;
+import com.pranav.interviewai.service.VoiceJobService;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.File;
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/interview")
@@ -37,12 +39,17 @@ public class InterviewController {
 
     private final InterviewService service;
     private final DeepgramService deepgramService;
-    private final GroqService groqService;
+    private final AudioStorageService audioStorage;
+    private final VoiceEvaluationService voiceEvaluation;
+    private final VoiceJobService voiceJobs;
 
     private final QuestionRepository questionRepo;
     private final SessionRepository sessionRepo;
-    private final InterviewAttemptRepository attemptRepository;
     private final UserRepository userRepo;   
+
+    @Value("${interview.stream-timeout-ms:120000}")
+    private long streamTimeoutMs;
+
     private User getCurrentUser() {
         String email = SecurityContextHolder
                 .getContext()
@@ -52,114 +59,171 @@ public class InterviewController {
         return userRepo.findByEmail(email).orElseThrow();
     }
     @PostMapping("/start")
-    public ResponseEntity<?> start(
+    public CompletableFuture<ResponseEntity<?>> start(
+            @RequestBody StartInterviewRequest req) {
+                User user = getCurrentUser();
+
+        return service.start(req, user.getId()).thenApply(ResponseEntity::ok);
+    }
+    @PostMapping(value = "/start/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter startStream(
             @RequestBody StartInterviewRequest req) {
                 User user = getCurrentUser();
 
-        return ResponseEntity.ok(service.start(req, user.getId()));
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        service.startStreaming(req, user.getId(), token -> sendEvent(emitter, "token", token))
+                .whenComplete((result, error) -> finishStream(emitter, "question", result, error));
+
+        return emitter;
     }
+
+    @GetMapping(value = "/model-answer/{questionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamModelAnswer(
+            @PathVariable String questionId) {
+                User user = getCurrentUser();
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        service.streamModelAnswer(questionId, user.getId(), token -> sendEvent(emitter, "token", token))
+                .whenComplete((result, error) -> finishStream(emitter, "done", result, error));
+
+        return emitter;
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, String text) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(name)
+                    .data(Map.of("text", text), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void finishStream(SseEmitter emitter, String name, Object result, Throwable error) {
+
+        if (error != null) {
+            emitter.completeWithError(error);
+            return;
+        }
+
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(name)
+                    .data(result instanceof String ? Map.of("text", result) : result,
+                            MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
     @PostMapping("/answer")
-    public ResponseEntity<?> answer(
+    public CompletableFuture<ResponseEntity<?>> answer(
             @RequestBody SubmitAnswerRequest req) {
                 User user = getCurrentUser();
 
-        return ResponseEntity.ok(service.submitAnswer(req, user.getId()));
+        return service.submitAnswer(req, user.getId()).thenApply(ResponseEntity::ok);
     }
     @PostMapping("/voice")
-    public ResponseEntity<?> handleVoice(
+    public CompletableFuture<ResponseEntity<?>> handleVoice(
             @RequestParam("file") MultipartFile file,
             @RequestParam("questionId") String questionId,
             @RequestParam("testId") String testId,
             @RequestParam("questionNumber") int questionNumber) throws Exception {
                 User user = getCurrentUser();
 
-        String fileName = java.util.UUID.randomUUID() + ".webm";
-        java.nio.file.Path uploadDir = java.nio.file.Paths.get("uploads/audio");
+        Question question = questionRepo.findById(questionId).orElseThrow();
+        Session session = sessionRepo.findById(question.getSessionId()).orElseThrow();
 
-        if (!java.nio.file.Files.exists(uploadDir)) {
-            java.nio.file.Files.createDirectories(uploadDir);
-        }
+        // written once; Deepgram and playback both read the stored file
+        AudioStorageService.StoredAudio audio = audioStorage.store(file);
 
-        java.nio.file.Path filePath = uploadDir.resolve(fileName);
-        java.nio.file.Files.write(filePath, file.getBytes());
+        long deadline = voiceEvaluation.deadline();
+        CompletableFuture<String> modelAnswer = voiceEvaluation.modelAnswer(question);
 
-        File tempFile = File.createTempFile("audio", ".wav");
-        file.transferTo(tempFile);
-        String transcript = deepgramService.transcribeAudio(tempFile);
-        tempFile.delete();
+        VoiceEvaluationService.VoiceAnswer answer =
+                new VoiceEvaluationService.VoiceAnswer(user, question, session, testId, questionNumber);
 
-        if (transcript == null || transcript.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(
-                    Map.of("error", "No voice detected. Please speak before stopping recording.")
-            );
-        }
+        return deepgramService.transcribeAsync(audio)
+                .thenCompose(transcript -> {
+
+                    if (transcript.isBlank()) {
+                        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                                Map.of("error", "No voice detected. Please speak before stopping recording.")
+                        ));
+                    }
+
+                    return voiceEvaluation.evaluate(answer, transcript, audio.id(), modelAnswer, deadline)
+                            .thenApply(ResponseEntity::ok);
+                });
+    }
+
+    /**
+     * Like {@code /voice}, but answers 202 as soon as the audio is stored.
+     * Progress is at {@code /voice/jobs/{jobId}} (polling) or
+     * {@code /voice/jobs/{jobId}/events} (SSE: queued, transcribed,
+     * evaluated, then saved or failed).
+     */
+    @PostMapping("/voice/jobs")
+    public ResponseEntity<?> submitVoiceJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("questionId") String questionId,
+            @RequestParam("testId") String testId,
+            @RequestParam("questionNumber") int questionNumber) throws Exception {
+                User user = getCurrentUser();
 
         Question question = questionRepo.findById(questionId).orElseThrow();
         Session session = sessionRepo.findById(question.getSessionId()).orElseThrow();
 
-        String evaluation =
-                groqService.evaluateVoiceAnswer(
-                        question.getQuestionText(),
-                        transcript
-                );
-
-        String modelAnswer =
-                groqService.generateModelAnswer(question.getQuestionText());
-
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode node = mapper.readTree(evaluation);
-
-        int contentScore = node.get("contentScore").asInt();
-        int grammarScore = node.get("grammarScore").asInt();
-        int fluencyScore = node.get("fluencyScore").asInt();
-        int keywordScore = node.get("keywordScore").asInt();
-        int clarityScore = node.get("clarityScore").asInt();
-
-        int overallScore =
-                (contentScore
-                        + grammarScore
-                        + fluencyScore
-                        + keywordScore
-                        + clarityScore) / 5;
-
-        InterviewAttempt attempt = new InterviewAttempt();
-        attempt.setUserId(user.getId());
-
-        attempt.setTopic(session.getTopic());
-        attempt.setDifficulty(session.getDifficulty());
-
-        attempt.setQuestion(question.getQuestionText());
-        attempt.setUserAnswer(transcript);
-        attempt.setModelAnswer(modelAnswer);
-        attempt.setFeedback(node.get("feedback").asText());
-
-        attempt.setAnswerType("VOICE");
-        attempt.setAudioUrl("/audio/" + fileName);
-
-        attempt.setVoiceScore(overallScore);
-        attempt.setContentScore(contentScore);
-        attempt.setGrammarScore(grammarScore);
-        attempt.setFluencyScore(fluencyScore);
-        attempt.setKeywordScore(keywordScore);
-        attempt.setClarityScore(clarityScore);
-
-        attempt.setTestId(testId);
-        attempt.setQuestionNumber(questionNumber);
-        attempt.setCreatedAt(LocalDateTime.now());
-
-        attemptRepository.save(attempt);
-
-        return ResponseEntity.ok(
-                Map.of(
-                        "transcript", transcript,
-                        "contentScore", contentScore,
-                        "grammarScore", grammarScore,
-                        "fluencyScore", fluencyScore,
-                        "keywordScore", keywordScore,
-                        "clarityScore", clarityScore,
-                        "overallScore", overallScore,
-                        "feedback", node.get("feedback").asText()
-                )
-        );
+        AudioStorageService.StoredAudio audio = audioStorage.store(file);
+
+        VoiceJobService.VoiceJob job = voiceJobs.submit(
+                new VoiceEvaluationService.VoiceAnswer(user, question, session, testId, questionNumber),
+                audio);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/interview/voice/jobs/" + job.id()))
+                .body(job.status());
+    }
+
+    @GetMapping("/voice/jobs/{jobId}")
+    public ResponseEntity<?> voiceJob(@PathVariable String jobId) {
+        User user = getCurrentUser();
+
+        return voiceJobs.find(jobId, user.getId())
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.status()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/voice/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> voiceJobEvents(@PathVariable String jobId) {
+        User user = getCurrentUser();
+
+        return voiceJobs.find(jobId, user.getId())
+                .map(job -> {
+                    SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+                    Runnable unsubscribe = voiceJobs.subscribe(job, event -> {
+                        try {
+                            emitter.send(SseEmitter.event()
+                                    .name(event.name())
+                                    .data(event.data(), MediaType.APPLICATION_JSON));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (event.last()) {
+                            emitter.complete();
+                        }
+                    });
+
+                    emitter.onCompletion(unsubscribe);
+                    emitter.onTimeout(unsubscribe);
+                    emitter.onError(error -> unsubscribe.run());
+
+                    return ResponseEntity.ok(emitter);
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
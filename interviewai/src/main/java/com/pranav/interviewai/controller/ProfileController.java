@@ -2,17 +2,18 @@ package com.pranav.interviewai.controller;
 
 import com.pranav.interviewai.entity.InterviewAttempt;
 import com.pranav.interviewai.entity.InterviewTest;
-import com.pranav.interviewai.entity.Question;
+import com.pranav.interviewai.entity.PracticeQuestion;
 import com.pranav.interviewai.entity.User;
 import com.pranav.interviewai.repository.InterviewAttemptRepository;
 import com.pranav.interviewai.repository.InterviewTestRepository;
-import com.pranav.interviewai.repository.QuestionRepository;
 import com.pranav.interviewai.repository.UserRepository;
-import com.pranav.interviewai.service.GroqService;
+import com.pranav.interviewai.service.AttemptArchiveService;
+import com.pranav.interviewai.service.PracticeLibraryService;
 import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
 import org.bson.Document;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.*;
 import org.springframework.http.ResponseEntity;
@@ -29,10 +30,10 @@ public class ProfileController {
 
     private final InterviewAttemptRepository attemptRepository;
     private final MongoTemplate mongoTemplate;
-    private final QuestionRepository questionRepo;
-    private final GroqService groqService;
+    private final PracticeLibraryService libraryService;
     private final UserRepository userRepo;
     private final InterviewTestRepository testRepository;
+    private final AttemptArchiveService archiveService;
     private User getCurrentUser() {
         String email = SecurityContextHolder
                 .getContext()
@@ -119,7 +120,7 @@ public class ProfileController {
         User user = getCurrentUser();
 
         List<InterviewAttempt> attempts =
-                attemptRepository.findByUserId(user.getId());
+                archiveService.restore(attemptRepository.findByUserId(user.getId()));
 
         Map<String, List<InterviewAttempt>> grouped =
                 attempts.stream()
@@ -178,6 +179,8 @@ public class ProfileController {
                                 a.getTopic().equalsIgnoreCase(topic))
                         .toList();
 
+        archiveService.restore(attempts);
+
         List<Map<String, Object>> response = attempts.stream()
                 .map(a -> Map.<String, Object>of(
                         "question", a.getQuestion(),
@@ -232,47 +235,49 @@ public class ProfileController {
     }
 
     @GetMapping("/practice-library")
-    public ResponseEntity<?> practiceLibrary() {
-
-        List<Question> questions = mongoTemplate.findAll(Question.class);
+    public ResponseEntity<?> practiceLibrary(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
 
-        List<Map<String, String>> library = questions.stream()
-                .map(q -> Map.of(
-                        "question", q.getQuestionText(),
-                        "modelAnswer", q.getModelAnswer()
-                ))
-                .toList();
+        List<Map<String, Object>> library = libraryService
+                .findAll(PageRequest.of(page, Math.min(size, 200)))
+                .map(this::toLibraryEntry)
+                .getContent();
 
         return ResponseEntity.ok(library);
     }
 
     @GetMapping("/questions/{topic}")
-    public ResponseEntity<?> questionsByTopic(@PathVariable String topic) {
-
-        List<Question> questions = questionRepo.findAll();
-
-        List<Map<String, Object>> response = questions.stream()
-                .filter(q -> q.getQuestionText() != null &&
-                        q.getQuestionText().toLowerCase()
-                                .contains(topic.toLowerCase()))
-                .map(q -> Map.<String, Object>of(
-                        "question", q.getQuestionText(),
-                        "modelAnswer",
-                        groqService.generateModelAnswer(
-                                q.getQuestionText()
-                        )
-                ))
-                .toList();
+    public ResponseEntity<?> questionsByTopic(
+            @PathVariable String topic,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        List<Map<String, Object>> response = libraryService
+                .findByTopic(topic, difficulty, PageRequest.of(page, Math.min(size, 200)))
+                .map(this::toLibraryEntry)
+                .getContent();
 
         return ResponseEntity.ok(response);
     }
+
+    private Map<String, Object> toLibraryEntry(PracticeQuestion q) {
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("question", q.getQuestionText());
+        map.put("modelAnswer", q.getModelAnswer());
+        map.put("topic", q.getTopic());
+        map.put("difficulty", q.getDifficulty());
+        return map;
+    }
     @GetMapping("/topic-tests/{topic}")
 public ResponseEntity<?> topicTests(@PathVariable String topic, HttpServletRequest request) {
         User user = getCurrentUser();
 
         List<InterviewAttempt> attempts =
-                attemptRepository.findByUserIdAndTopicIgnoreCase(
-                        user.getId(), topic);
+                archiveService.restore(attemptRepository.findByUserIdAndTopicIgnoreCase(
+                        user.getId(), topic));
 
     // Group by testId
     Map<String, List<InterviewAttempt>> grouped =
@@ -1,19 +1,26 @@
 package com.pranav.interviewai.controller;
 
 import com.pranav.interviewai.entity.*;
+import com.pranav.interviewai.exception.LlmResponseException;
+import com.pranav.interviewai.exception.LlmTimeoutException;
 import com.pranav.interviewai.repository.*;
 import com.pranav.interviewai.service.GroqService;
+import com.pranav.interviewai.service.LlmOperation;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/test")
@@ -27,6 +34,9 @@ public class TestController {
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @Value("${interview.answer-deadline-ms:25000}")
+    private long answerDeadlineMs;
+
     @PostMapping("/start")
     public ResponseEntity<?> startTest(
             @RequestParam String topic,
@@ -51,31 +61,64 @@ public class TestController {
     }
 
     @PostMapping("/answer")
-    public ResponseEntity<?> submitAnswer(
+    public CompletableFuture<ResponseEntity<?>> submitAnswer(
             @RequestParam String testId,
             @RequestParam String questionText,
             @RequestParam String answer,
             @RequestParam Long timeTakenSeconds,
             HttpServletRequest request
-    ) throws Exception {
+    ) {
         String email = (String) request.getAttribute("userEmail");
         User user = userRepo.findByEmail(email).orElseThrow();
 
         InterviewTest test = testRepository.findById(testId).orElseThrow();
         if (!test.getUserId().equals(user.getId())) {
-            return ResponseEntity.status(403)
-                    .body(Map.of("error", "Unauthorized test access"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(403)
+                    .body(Map.of("error", "Unauthorized test access")));
         }
 
-        String evaluation =
-                groqService.evaluateAnswer(questionText, answer);
+        CompletableFuture<String> evaluation =
+                groqService.evaluateAnswer(questionText, answer)
+                        .completeOnTimeout(null, answerDeadlineMs, TimeUnit.MILLISECONDS)
+                        .exceptionally(LlmTimeoutException::orNull);
 
-        JsonNode node = mapper.readTree(evaluation);
+        CompletableFuture<String> modelAnswer =
+                groqService.generateModelAnswer(questionText)
+                        .completeOnTimeout(null, answerDeadlineMs, TimeUnit.MILLISECONDS)
+                        .exceptionally(e -> null);
 
-        int score = node.get("score").asInt();
+        return evaluation.thenCombine(modelAnswer, (evaluated, answerText) -> saveAttempt(
+                test, user, questionText, answer,
+                timeTakenSeconds, evaluated, answerText));
+    }
 
-        String modelAnswer =
-                groqService.generateModelAnswer(questionText);
+    private ResponseEntity<?> saveAttempt(
+            InterviewTest test,
+            User user,
+            String questionText,
+            String answer,
+            Long timeTakenSeconds,
+            String evaluation,
+            String modelAnswer) {
+
+        int score = 0;
+        String feedback = "Evaluation timed out";
+
+        if (evaluation != null) {
+            JsonNode node;
+            try {
+                node = mapper.readTree(evaluation);
+            } catch (JsonProcessingException e) {
+                throw invalidEvaluation(e);
+            }
+
+            if (!node.hasNonNull("score") || !node.hasNonNull("feedback")) {
+                throw invalidEvaluation(null);
+            }
+
+            score = node.get("score").asInt();
+            feedback = node.get("feedback").asText();
+        }
 
         InterviewAttempt attempt = new InterviewAttempt();
         attempt.setTopic(test.getTopic());
@@ -84,7 +127,7 @@ public class TestController {
         attempt.setUserId(user.getId());
         attempt.setUserAnswer(answer);
         attempt.setModelAnswer(modelAnswer);
-        attempt.setFeedback(node.get("feedback").asText());
+        attempt.setFeedback(feedback);
         attempt.setTextScore(score);
         attempt.setAnswerType("TEXT");
         attempt.setTimeTakenSeconds(timeTakenSeconds);
@@ -96,10 +139,18 @@ public class TestController {
 
         return ResponseEntity.ok(Map.of(
                 "score", score,
-                "feedback", node.get("feedback").asText()
+                "feedback", feedback,
+                "partial", evaluation == null || modelAnswer == null
         ));
     }
 
+    // same as the voice path: the model answered with something unusable
+    private static LlmResponseException invalidEvaluation(Throwable cause) {
+        return new LlmResponseException(
+                LlmOperation.EVALUATION.getKey(), 200,
+                "Invalid evaluation response", false, cause);
+    }
+
     @PostMapping("/stop/{testId}")
     public ResponseEntity<?> stopTest(
             @PathVariable String testId,
@@ -0,0 +1,273 @@
+package com.pranav.interviewai.controller;
+
+import com.pranav.interviewai.entity.Question;
+import com.pranav.interviewai.entity.Session;
+import com.pranav.interviewai.entity.User;
+import com.pranav.interviewai.exception.UploadLimitExceededException;
+import com.pranav.interviewai.repository.QuestionRepository;
+import com.pranav.interviewai.repository.SessionRepository;
+import com.pranav.interviewai.repository.UserRepository;
+import com.pranav.interviewai.service.AudioStorageService;
+import com.pranav.interviewai.service.DeepgramService;
+import com.pranav.interviewai.service.StreamingTranscriptionService;
+import com.pranav.interviewai.service.Transcript;
+import com.pranav.interviewai.service.VoiceEvaluationService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streaming variant of {@code POST /api/interview/voice}, at
+ * {@code /ws/interview/voice?questionId=..&testId=..&questionNumber=..}.
+ *
+ * The browser sends MediaRecorder chunks as binary messages while the
+ * candidate speaks. Each chunk is appended to the stored recording and
+ * relayed to live transcription, and the running transcript comes back as
+ * {@code {"type":"transcript"}} messages. On {@code {"type":"stop"}} the
+ * transcript is finalized and evaluated right away, and the outcome is sent
+ * as one {@code result} or {@code error} message before the socket closes.
+ * If live transcription failed or did not finish, the stored recording is
+ * transcribed the usual way instead, and what was heard live is only used
+ * when that fails too.
+ */
+@Component
+@RequiredArgsConstructor
+public class VoiceStreamHandler extends AbstractWebSocketHandler {
+
+    private static final String STATE = "voiceStream";
+
+    private final StreamingTranscriptionService transcription;
+    private final DeepgramService deepgramService;
+    private final AudioStorageService audioStorage;
+    private final VoiceEvaluationService voiceEvaluation;
+
+    private final QuestionRepository questionRepo;
+    private final SessionRepository sessionRepo;
+    private final UserRepository userRepo;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${interview.voice-stream.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    private record VoiceStream(
+            WebSocketSession out,
+            VoiceEvaluationService.VoiceAnswer answer,
+            AudioStorageService.AudioWriter audio,
+            StreamingTranscriptionService.Stream stt,
+            CompletableFuture<String> modelAnswer,
+            AtomicBoolean stopped) {
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+
+        Principal principal = session.getPrincipal();
+        if (principal == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Not authenticated"));
+            return;
+        }
+
+        MultiValueMap<String, String> params =
+                UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+
+        User user = userRepo.findByEmail(principal.getName()).orElseThrow();
+        Question question = questionRepo.findById(params.getFirst("questionId")).orElseThrow();
+        Session interview = sessionRepo.findById(question.getSessionId()).orElseThrow();
+
+        if (!interview.getUserId().equals(user.getId())) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Unauthorized session access"));
+            return;
+        }
+
+        // transcript updates arrive on OkHttp threads while this one reads audio
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, 512 * 1024);
+
+        VoiceEvaluationService.VoiceAnswer answer = new VoiceEvaluationService.VoiceAnswer(
+                user, question, interview,
+                params.getFirst("testId"),
+                Integer.parseInt(params.getFirst("questionNumber")));
+
+        VoiceStream stream = new VoiceStream(
+                out,
+                answer,
+                audioStorage.open(params.getFirst("contentType")),
+                transcription.open(text -> send(out, Map.of("type", "transcript", "text", text))),
+                voiceEvaluation.modelAnswer(question),
+                new AtomicBoolean());
+
+        session.getAttributes().put(STATE, stream);
+        send(out, Map.of("type", "ready"));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+
+        VoiceStream stream = (VoiceStream) session.getAttributes().get(STATE);
+        if (stream == null || stream.stopped().get()) {
+            return;
+        }
+
+        ByteBuffer payload = message.getPayload();
+        byte[] chunk = new byte[payload.remaining()];
+        payload.get(chunk);
+
+        try {
+            stream.audio().write(ByteBuffer.wrap(chunk));
+        } catch (UploadLimitExceededException e) {
+            abort(stream);
+            send(stream.out(), Map.of("type", "error", "error", e.getMessage()));
+            session.close(CloseStatus.TOO_BIG_TO_PROCESS);
+            return;
+        }
+
+        stream.stt().send(chunk);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+
+        VoiceStream stream = (VoiceStream) session.getAttributes().get(STATE);
+        if (stream == null) {
+            return;
+        }
+
+        JsonNode command = mapper.readTree(message.getPayload());
+        if ("stop".equals(command.path("type").asText())) {
+            finish(stream);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+
+        VoiceStream stream = (VoiceStream) session.getAttributes().get(STATE);
+        // closed before "stop": the answer was abandoned
+        if (stream != null && !stream.stopped().get()) {
+            abort(stream);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        exception.printStackTrace();
+    }
+
+    private void finish(VoiceStream stream) throws IOException {
+
+        if (!stream.stopped().compareAndSet(false, true)) {
+            return;
+        }
+
+        // the deadline starts when the candidate stops speaking, as it does
+        // when the upload arrives on the HTTP path
+        long deadline = voiceEvaluation.deadline();
+
+        AudioStorageService.StoredAudio stored;
+        try {
+            stored = stream.audio().commit();
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            abort(stream);
+            send(stream.out(), Map.of("type", "error", "error", "Could not save the recording"));
+            close(stream.out());
+            return;
+        }
+
+        stream.stt().finish()
+                .exceptionallyCompose(e -> deepgramService.transcribeAsync(stored)
+                        .exceptionally(retry -> heard(e, retry)))
+                .thenCompose(transcript -> {
+
+                    if (transcript.isBlank()) {
+                        return CompletableFuture.completedFuture(Map.<String, Object>of(
+                                "type", "error",
+                                "error", "No voice detected. Please speak before stopping recording."));
+                    }
+
+                    return voiceEvaluation.evaluate(
+                                    stream.answer(), transcript, stored.id(), stream.modelAnswer(), deadline)
+                            .thenApply(result -> {
+                                Map<String, Object> body = new HashMap<>(result);
+                                body.put("type", "result");
+                                return body;
+                            });
+                })
+                .whenComplete((body, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        body = Map.of("type", "error", "error", String.valueOf(cause.getMessage()));
+                    }
+                    send(stream.out(), body);
+                    close(stream.out());
+                });
+    }
+
+    private static Transcript heard(Throwable live, Throwable retry) {
+
+        Throwable cause = live instanceof CompletionException && live.getCause() != null
+                ? live.getCause()
+                : live;
+
+        if (cause instanceof StreamingTranscriptionService.IncompleteTranscriptException incomplete
+                && !incomplete.heard().isBlank()) {
+            return incomplete.heard();
+        }
+
+        throw retry instanceof CompletionException completion ? completion : new CompletionException(retry);
+    }
+
+    private void abort(VoiceStream stream) {
+
+        stream.stopped().set(true);
+        stream.stt().cancel();
+
+        try {
+            stream.audio().close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void send(WebSocketSession out, Map<String, Object> message) {
+        try {
+            if (out.isOpen()) {
+                out.sendMessage(new TextMessage(mapper.writeValueAsString(message)));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client is gone; nothing left to tell it
+        }
+    }
+
+    private static void close(WebSocketSession out) {
+        try {
+            out.close(CloseStatus.NORMAL);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
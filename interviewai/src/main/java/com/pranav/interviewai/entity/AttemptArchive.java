@@ -0,0 +1,27 @@
+package com.pranav.interviewai.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "attempt_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptArchive {
+
+    // the InterviewAttempt's ID
+    @Id
+    private String id;
+
+    private String userId;
+
+    // gzipped JSON object of the text fields moved out of the attempt
+    private byte[] payload;
+    private int originalBytes;
+
+    private LocalDateTime attemptCreatedAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,29 @@
+package com.pranav.interviewai.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Document(collection = "candidate_profiles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateProfile {
+
+    // SHA-256 of the resume file, so re-uploads update one profile
+    @Id
+    private String id;
+
+    // uploading user ID -> the file name they gave; rankings only show a
+    // user their own uploads
+    private Map<String, String> owners;
+
+    // canonical skill names, as indexed
+    private List<String> skills;
+
+    private LocalDateTime updatedAt;
+}
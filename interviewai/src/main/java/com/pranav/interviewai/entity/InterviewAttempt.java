@@ -41,6 +41,9 @@ public class InterviewAttempt {
 
     private LocalDateTime createdAt;
 
+    // large text fields moved to attempt_archive by the retention sweep
+    private Boolean archived;
+
     // Explicit setters (add these if Lombok @Data is not working)
     public void setTextScore(Integer textScore) {
         this.textScore = textScore;
@@ -0,0 +1,23 @@
+package com.pranav.interviewai.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "model_answer_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelAnswerCacheEntry {
+
+    // SHA-256 of the normalized question text
+    @Id
+    private String id;
+
+    private String questionText;
+    private String modelAnswer;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.pranav.interviewai.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Document(collection = "parsed_resumes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParsedResume {
+
+    // SHA-256 of the uploaded file's bytes
+    @Id
+    private String id;
+
+    private String text;
+
+    // extraction mode and taxonomy version -> skills found that way;
+    // a list because skill names like "node.js" cannot be map keys
+    private Map<String, List<Skill>> skills;
+
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Skill {
+        private String name;
+        private String source;
+    }
+}
@@ -0,0 +1,31 @@
+package com.pranav.interviewai.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "practice_library")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PracticeQuestion {
+
+    // SHA-256 of the normalized question text, so a question is listed once
+    @Id
+    private String id;
+
+    private String topic;
+    private String difficulty;
+
+    // lowercased copies used for the indexed lookups
+    private String topicKey;
+    private String difficultyKey;
+
+    private String questionText;
+    private String modelAnswer;
+
+    private LocalDateTime updatedAt;
+}
@@ -15,4 +15,11 @@ public class Question {
     private String sessionId;
     private String questionText;
     private String modelAnswer;
+
+    // owner of the session the question was served in, used for no-repeat
+    private String userId;
+    private String contentHash;
+
+    // set while the question sits unclaimed in the warm pool
+    private String poolKey;
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.pranav.interviewai.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Document(collection = "transcript_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscriptCacheEntry {
+
+    // SHA-256 of the audio bytes, plus the transcription options version
+    @Id
+    private String id;
+
+    private String text;
+    private List<Word> words;
+
+    // how long Deepgram took, credited as saved on every hit
+    private long latencyMs;
+
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Word {
+        private String text;
+        private double start;
+        private double end;
+        private double confidence;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pranav.interviewai.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(LlmException.class)
+    public ResponseEntity<?> handleLlm(LlmException e) {
+
+        if (e instanceof LlmTimeoutException) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+
+        if (e instanceof LlmUnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("error", e.getMessage()));
+        }
+
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(TranscriptionException.class)
+    public ResponseEntity<?> handleTranscription(TranscriptionException e) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(UploadLimitExceededException.class)
+    public ResponseEntity<?> handleUploadLimit(UploadLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<?> handleQueueFull(JobQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,12 @@
+package com.pranav.interviewai.exception;
+
+/**
+ * A background job was refused because its queue is full; answered with
+ * 503 so the client retries later.
+ */
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.pranav.interviewai.exception;
+
+/**
+ * Base type for failures talking to the LLM provider. Callers get one of
+ * the subclasses instead of an error string in place of the completion.
+ */
+public class LlmException extends RuntimeException {
+
+    private final String operation;
+    private final boolean retryable;
+
+    public LlmException(String operation, String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.operation = operation;
+        this.retryable = retryable;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,18 @@
+package com.pranav.interviewai.exception;
+
+/**
+ * The provider answered, but with an error status or a body we could not use.
+ */
+public class LlmResponseException extends LlmException {
+
+    private final int status;
+
+    public LlmResponseException(String operation, int status, String message, boolean retryable, Throwable cause) {
+        super(operation, message, retryable, cause);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pranav.interviewai.exception;
+
+import java.util.concurrent.CompletionException;
+
+public class LlmTimeoutException extends LlmException {
+
+    public LlmTimeoutException(String operation, String message) {
+        super(operation, message, true, null);
+    }
+
+    /**
+     * For {@code exceptionally}: turns a timeout into {@code null} so the
+     * branch can be reported as missing, and rethrows anything else.
+     */
+    public static <T> T orNull(Throwable error) {
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+
+        if (cause instanceof LlmTimeoutException) {
+            return null;
+        }
+
+        throw error instanceof CompletionException completion
+                ? completion
+                : new CompletionException(error);
+    }
+}
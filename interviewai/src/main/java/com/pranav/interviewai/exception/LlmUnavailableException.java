@@ -0,0 +1,12 @@
+package com.pranav.interviewai.exception;
+
+/**
+ * The provider could not be reached, or we refused to call it because the
+ * circuit breaker is open or the operation's bulkhead is full.
+ */
+public class LlmUnavailableException extends LlmException {
+
+    public LlmUnavailableException(String operation, String message, boolean retryable, Throwable cause) {
+        super(operation, message, retryable, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.pranav.interviewai.exception;
+
+/**
+ * An uploaded resume is larger (bytes or pages) than the parser accepts.
+ */
+public class ResumeLimitExceededException extends UploadLimitExceededException {
+
+    public ResumeLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.pranav.interviewai.exception;
+
+/**
+ * Deepgram could not be reached, or did not return a transcript; answered
+ * with 502.
+ */
+public class TranscriptionException extends RuntimeException {
+
+    public TranscriptionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
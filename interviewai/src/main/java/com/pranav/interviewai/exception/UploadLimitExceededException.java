@@ -0,0 +1,11 @@
+package com.pranav.interviewai.exception;
+
+/**
+ * An upload is larger than its endpoint accepts; answered with 413.
+ */
+public class UploadLimitExceededException extends RuntimeException {
+
+    public UploadLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.pranav.interviewai.repository;
+
+import com.pranav.interviewai.entity.AttemptArchive;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface AttemptArchiveRepository extends MongoRepository<AttemptArchive, String> {
+}
@@ -0,0 +1,8 @@
+package com.pranav.interviewai.repository;
+
+import com.pranav.interviewai.entity.CandidateProfile;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface CandidateProfileRepository
+        extends MongoRepository<CandidateProfile, String> {
+}
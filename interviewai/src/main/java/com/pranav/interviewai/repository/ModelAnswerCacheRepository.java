@@ -0,0 +1,8 @@
+package com.pranav.interviewai.repository;
+
+import com.pranav.interviewai.entity.ModelAnswerCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ModelAnswerCacheRepository
+        extends MongoRepository<ModelAnswerCacheEntry, String> {
+}
@@ -0,0 +1,8 @@
+package com.pranav.interviewai.repository;
+
+import com.pranav.interviewai.entity.ParsedResume;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ParsedResumeRepository
+        extends MongoRepository<ParsedResume, String> {
+}
@@ -0,0 +1,19 @@
+package com.pranav.interviewai.repository;
+
+import com.pranav.interviewai.entity.PracticeQuestion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface PracticeQuestionRepository
+        extends MongoRepository<PracticeQuestion, String> {
+
+    Page<PracticeQuestion> findByTopicKey(String topicKey, Pageable pageable);
+
+    Page<PracticeQuestion> findByTopicKeyAndDifficultyKey(
+            String topicKey, String difficultyKey, Pageable pageable);
+
+    List<PracticeQuestion> findByModelAnswerIsNull(Pageable pageable);
+}
@@ -0,0 +1,8 @@
+package com.pranav.interviewai.repository;
+
+import com.pranav.interviewai.entity.TranscriptCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface TranscriptCacheRepository
+        extends MongoRepository<TranscriptCacheEntry, String> {
+}
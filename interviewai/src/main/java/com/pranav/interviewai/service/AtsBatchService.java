@@ -0,0 +1,420 @@
+package com.pranav.interviewai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Scores many resumes against one job description and reports each result
+ * as soon as it is ready.
+ *
+ * Uploads (PDF, DOCX, or zips of them) are read one entry at a time; zip
+ * entries are spooled to temp files. At most {@code max-in-flight} resumes
+ * are being parsed or scored at once, and only a bounded top-N ranking is
+ * kept, so memory does not grow with the size of the batch.
+ */
+@Service
+public class AtsBatchService {
+
+    private record Ranked(String file, int atsScore) {}
+
+    private interface Source {
+        InputStream open() throws IOException;
+    }
+
+    private final ResumeParserService parser;
+    private final AtsService atsService;
+
+    private final ExecutorService workers;
+    private final ExecutorService coordinators;
+    private final int maxInFlight;
+    private final long maxEntryBytes;
+    private final int rankingSize;
+
+    private final Timer parseTimer;
+    private final Timer extractTimer;
+    private final Timer scoreTimer;
+    private final Counter resumesOk;
+    private final Counter resumesFailed;
+
+    public AtsBatchService(
+            ResumeParserService parser,
+            AtsService atsService,
+            MeterRegistry registry,
+            @Value("${ats.batch.parallelism:0}") int parallelism,
+            @Value("${ats.batch.max-in-flight:0}") int maxInFlight,
+            @Value("${ats.batch.max-concurrent:4}") int maxConcurrent,
+            @Value("${ats.batch.max-entry-bytes:10485760}") long maxEntryBytes,
+            @Value("${ats.batch.ranking-size:50}") int rankingSize) {
+
+        this.parser = parser;
+        this.atsService = atsService;
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.coordinators = Executors.newFixedThreadPool(maxConcurrent);
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : threads * 2;
+        this.maxEntryBytes = maxEntryBytes;
+        this.rankingSize = rankingSize;
+
+        this.parseTimer = stageTimer(registry, "parse");
+        this.extractTimer = stageTimer(registry, "extract");
+        this.scoreTimer = stageTimer(registry, "score");
+        this.resumesOk = Counter.builder("ats.batch.resumes").tag("result", "ok").register(registry);
+        this.resumesFailed = Counter.builder("ats.batch.resumes").tag("result", "error").register(registry);
+    }
+
+    /**
+     * Hands one line per resume to {@code sink} as it finishes (in
+     * completion order), then a final summary with the ranking and stage
+     * totals. If {@code sink} throws, the client is gone and the batch stops.
+     */
+    public CompletableFuture<Void> rank(
+            String userId,
+            List<MultipartFile> uploads,
+            String jdText,
+            boolean useLlm,
+            Consumer<Map<String, Object>> sink) {
+
+        return CompletableFuture.runAsync(() -> run(userId, uploads, jdText, useLlm, sink), coordinators);
+    }
+
+    private void run(
+            String userId,
+            List<MultipartFile> uploads,
+            String jdText,
+            boolean useLlm,
+            Consumer<Map<String, Object>> sink) {
+
+        long startedAt = System.nanoTime();
+
+        AtsService.Job jd = atsService.job(jdText, useLlm).join();
+        Batch batch = new Batch(userId, jd, useLlm, sink);
+
+        try {
+            for (MultipartFile upload : uploads) {
+
+                String name = upload.getOriginalFilename() == null ? "unnamed" : upload.getOriginalFilename();
+
+                if (name.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                    submitZip(batch, name, upload);
+                } else {
+                    submit(batch, name, upload::getInputStream, null);
+                }
+
+                if (batch.cancelled) {
+                    break;
+                }
+            }
+
+            // every permit back means every submitted resume is done
+            batch.permits.acquire(maxInFlight);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (!batch.cancelled) {
+            sink.accept(batch.summary(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)));
+        }
+    }
+
+    private void submitZip(Batch batch, String zipName, MultipartFile upload) throws InterruptedException {
+
+        try (ZipInputStream zip = new ZipInputStream(upload.getInputStream())) {
+
+            ZipEntry entry;
+            while (!batch.cancelled && (entry = zip.getNextEntry()) != null) {
+
+                String name = entry.getName();
+                if (entry.isDirectory() || name.startsWith("__MACOSX/") || !parser.isSupported(name)) {
+                    continue;
+                }
+
+                Path spooled = Files.createTempFile("ats-batch", null);
+                try {
+                    if (!copyBounded(zip, spooled)) {
+                        Files.deleteIfExists(spooled);
+                        batch.failed(name, "File exceeds " + maxEntryBytes + " bytes");
+                        continue;
+                    }
+                } catch (IOException e) {
+                    Files.deleteIfExists(spooled);
+                    throw e;
+                }
+
+                submit(batch, name, null, spooled);
+            }
+
+        } catch (IOException e) {
+            batch.failed(zipName, "Could not read zip: " + e.getMessage());
+        }
+    }
+
+    private boolean copyBounded(InputStream in, Path target) throws IOException {
+
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                total += n;
+                if (total > maxEntryBytes) {
+                    return false;
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+
+        return true;
+    }
+
+    private void submit(Batch batch, String name, Source source, Path spooled) throws InterruptedException {
+
+        batch.permits.acquire();
+
+        workers.execute(() -> {
+
+            // a cache hit skips parsing, so time it from inside the callback
+            AtomicLong parseNanos = new AtomicLong();
+            Callable<String> parse = () -> {
+                long parseStart = System.nanoTime();
+                try {
+                    return spooled != null
+                            ? parser.extractText(name, spooled)
+                            : parseStream(name, source);
+                } finally {
+                    parseNanos.set(System.nanoTime() - parseStart);
+                }
+            };
+
+            long extractStart = System.nanoTime();
+            CompletableFuture<ExtractedSkills> extracted;
+            try {
+                String fileHash = spooled != null ? ContentHash.of(spooled) : hashStream(source);
+                extracted = atsService.resumeSkills(
+                        batch.userId, fileHash, fileName(name), parse, batch.useLlm, LlmPriority.BACKGROUND);
+            } catch (Exception e) {
+                batch.failed(name, e.getMessage());
+                batch.permits.release();
+                return;
+            } finally {
+                deleteQuietly(spooled);
+            }
+
+            extracted.whenComplete((skills, error) -> {
+                try {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        batch.failed(name, cause.getMessage());
+                        return;
+                    }
+
+                    long extractNanos = System.nanoTime() - extractStart - parseNanos.get();
+
+                    long scoreStart = System.nanoTime();
+                    Map<String, Object> result = atsService.score(skills, batch.jd);
+                    long scoreNanos = System.nanoTime() - scoreStart;
+
+                    batch.succeeded(name, result, parseNanos.get(), extractNanos, scoreNanos);
+                } finally {
+                    batch.permits.release();
+                }
+            });
+        });
+    }
+
+    private String parseStream(String name, Source source) throws Exception {
+        try (InputStream in = source.open()) {
+            return parser.extractText(name, in);
+        }
+    }
+
+    // zip entries keep only their own name, not the folders inside the zip
+    private static String fileName(String name) {
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    private String hashStream(Source source) throws IOException {
+        try (InputStream in = source.open()) {
+            return ContentHash.of(in);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("ats.batch.stage")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private class Batch {
+
+        final String userId;
+        final AtsService.Job jd;
+        final boolean useLlm;
+        final Consumer<Map<String, Object>> sink;
+        final Semaphore permits = new Semaphore(maxInFlight);
+
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicLong parseNanos = new AtomicLong();
+        final AtomicLong extractNanos = new AtomicLong();
+        final AtomicLong scoreNanos = new AtomicLong();
+
+        // min-heap of the best scores so far
+        final PriorityQueue<Ranked> top =
+                new PriorityQueue<>(Comparator.comparingInt(Ranked::atsScore));
+
+        volatile boolean cancelled;
+
+        Batch(String userId, AtsService.Job jd, boolean useLlm, Consumer<Map<String, Object>> sink) {
+            this.userId = userId;
+            this.jd = jd;
+            this.useLlm = useLlm;
+            this.sink = sink;
+        }
+
+        void succeeded(String file, Map<String, Object> result, long parse, long extract, long score) {
+
+            processed.incrementAndGet();
+            resumesOk.increment();
+            parseNanos.addAndGet(parse);
+            extractNanos.addAndGet(extract);
+            scoreNanos.addAndGet(score);
+            parseTimer.record(parse, TimeUnit.NANOSECONDS);
+            extractTimer.record(extract, TimeUnit.NANOSECONDS);
+            scoreTimer.record(score, TimeUnit.NANOSECONDS);
+
+            int atsScore = (Integer) result.get("atsScore");
+            synchronized (top) {
+                top.add(new Ranked(file, atsScore));
+                if (top.size() > rankingSize) {
+                    top.poll();
+                }
+            }
+
+            Map<String, Object> timings = new LinkedHashMap<>();
+            timings.put("parseMs", millis(parse));
+            timings.put("extractMs", millis(extract));
+            timings.put("scoreMs", millis(score));
+
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("type", "result");
+            line.put("file", file);
+            line.putAll(result);
+            line.put("timings", timings);
+
+            emit(line);
+        }
+
+        void failed(String file, String message) {
+
+            errors.incrementAndGet();
+            resumesFailed.increment();
+
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("type", "error");
+            line.put("file", file);
+            line.put("error", message == null ? "Could not process resume" : message);
+
+            emit(line);
+        }
+
+        Map<String, Object> summary(long wallMs) {
+
+            List<Ranked> ranked;
+            synchronized (top) {
+                ranked = new ArrayList<>(top);
+            }
+            ranked.sort(Comparator.comparingInt(Ranked::atsScore).reversed());
+
+            List<Map<String, Object>> ranking = new ArrayList<>();
+            for (Ranked r : ranked) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("file", r.file());
+                entry.put("atsScore", r.atsScore());
+                ranking.add(entry);
+            }
+
+            Map<String, Object> timings = new LinkedHashMap<>();
+            timings.put("parseMs", millis(parseNanos.get()));
+            timings.put("extractMs", millis(extractNanos.get()));
+            timings.put("scoreMs", millis(scoreNanos.get()));
+            timings.put("wallMs", wallMs);
+
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("type", "summary");
+            line.put("processed", processed.get());
+            line.put("failed", errors.get());
+            line.put("ranking", ranking);
+            line.put("timings", timings);
+
+            return line;
+        }
+
+        private void emit(Map<String, Object> line) {
+
+            if (cancelled) {
+                return;
+            }
+
+            try {
+                sink.accept(line);
+            } catch (RuntimeException e) {
+                cancelled = true;
+            }
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinators.shutdownNow();
+        workers.shutdownNow();
+    }
+}
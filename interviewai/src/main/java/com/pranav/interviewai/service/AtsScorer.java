@@ -0,0 +1,255 @@
+package com.pranav.interviewai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Scores resumes against a job description on primitive bitsets.
+ *
+ * Skills go through the taxonomy first, so aliases land on one canonical
+ * name, and are interned to dense int IDs; a skill set is then a
+ * {@code long[]} with one bit per ID. Scoring a resume is a few ANDs and
+ * popcounts, with no strings involved; names are only looked up again to
+ * build the response.
+ *
+ * IDs are never reused, so the table only grows. Taxonomy skills always
+ * have one; skills only the LLM named get one while fewer than
+ * {@code ats.scoring.max-extra-skills} have been seen, and are left out
+ * of the bitsets after that, counted by {@code ats.scoring.skills.unscored}.
+ *
+ * JD skills are split into required and nice-to-have from the JD text
+ * (a "Nice to have" section, or "preferred" / "is a plus" on the line
+ * itself; only a line holding nothing but the keyword opens a section),
+ * and weighted {@code ats.scoring.required-weight} and
+ * {@code ats.scoring.nice-weight}.
+ */
+@Component
+public class AtsScorer {
+
+    public record JobProfile(long[] required, long[] nice, int requiredCount, int niceCount) {
+    }
+
+    public record Score(int atsScore, int requiredMatched, int requiredTotal, int niceMatched, int niceTotal) {
+    }
+
+    // a heading is the keyword alone on its line, optionally with a colon;
+    // "Preferred: Docker" is a nice-to-have item, not a section
+    private static final Pattern NICE_HEADING = Pattern.compile(
+            "(?i)^(nice[ -]to[ -]have|good[ -]to[ -]have|preferred( qualifications| skills)?|bonus( points)?|"
+                    + "desirable|optional|pluses|extras?)\\s*:?$");
+    private static final Pattern REQUIRED_HEADING = Pattern.compile(
+            "(?i)^(requirements?|required( qualifications| skills)?|must[ -]haves?|(minimum |basic )?qualifications|"
+                    + "responsibilities|what you.ll (need|bring|do)|skills|who you are|about you)\\s*:?$");
+    private static final Pattern NICE_INLINE = Pattern.compile(
+            "(?i)\\b(nice[ -]to[ -]have|good[ -]to[ -]have|preferred|is a plus|a big plus|bonus|desirable|optional)\\b");
+
+    private final SkillMatcher skillMatcher;
+    private final SkillTaxonomy taxonomy;
+    private final int requiredWeight;
+    private final int niceWeight;
+    private final int maxSkills;
+    private final Counter unscored;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    public AtsScorer(
+            SkillMatcher skillMatcher,
+            MeterRegistry registry,
+            @Value("${ats.scoring.required-weight:3}") int requiredWeight,
+            @Value("${ats.scoring.nice-weight:1}") int niceWeight,
+            @Value("${ats.scoring.max-extra-skills:4096}") int maxExtraSkills) {
+
+        this.skillMatcher = skillMatcher;
+        this.taxonomy = skillMatcher.taxonomy();
+        this.requiredWeight = requiredWeight;
+        this.niceWeight = niceWeight;
+        this.unscored = Counter.builder("ats.scoring.skills.unscored").register(registry);
+
+        // taxonomy skills take the low IDs, so most bitsets stay a few words long
+        List<String> known = taxonomy.patterns().values().stream().distinct().sorted().toList();
+        this.maxSkills = known.size() + Math.max(0, maxExtraSkills);
+        known.forEach(this::intern);
+    }
+
+    public long[] bits(Collection<String> skills) {
+
+        long[] bits = new long[0];
+        for (String skill : skills) {
+            int id = intern(taxonomy.canonical(skill));
+            if (id < 0) {
+                unscored.increment();
+                continue;
+            }
+            if (id >>> 6 >= bits.length) {
+                bits = Arrays.copyOf(bits, (id >>> 6) + 1);
+            }
+            bits[id >>> 6] |= 1L << id;
+        }
+
+        return bits;
+    }
+
+    /**
+     * Splits the JD's skills into required and nice-to-have. A skill the
+     * text mentions in both kinds of context counts as required; one the
+     * text does not mention at all (an LLM inference) does too.
+     */
+    public JobProfile profile(String jdText, ExtractedSkills jd) {
+
+        Set<String> seenRequired = new HashSet<>();
+        Set<String> seenNice = new HashSet<>();
+        boolean niceSection = false;
+
+        for (String raw : (jdText == null ? "" : jdText).split("\\R")) {
+
+            String line = raw.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String heading = line.replaceAll("^[#*\\-\\s]+", "").replaceAll("[*#\\s]+$", "");
+            if (NICE_HEADING.matcher(heading).matches()) {
+                niceSection = true;
+                continue;
+            }
+            if (REQUIRED_HEADING.matcher(heading).matches()) {
+                niceSection = false;
+                continue;
+            }
+
+            boolean nice = niceSection || NICE_INLINE.matcher(line).find();
+            (nice ? seenNice : seenRequired).addAll(skillMatcher.match(line));
+        }
+
+        List<String> required = new ArrayList<>();
+        List<String> nice = new ArrayList<>();
+        for (String skill : jd.skills()) {
+            String canonical = taxonomy.canonical(skill);
+            (seenNice.contains(canonical) && !seenRequired.contains(canonical) ? nice : required).add(canonical);
+        }
+
+        long[] requiredBits = bits(required);
+        long[] niceBits = bits(nice);
+
+        return new JobProfile(requiredBits, niceBits, count(requiredBits), count(niceBits));
+    }
+
+    /**
+     * The weighted score alone: what bulk ranking needs, without any
+     * allocation.
+     */
+    public int atsScore(long[] resume, JobProfile jd) {
+        return weighted(intersectCount(resume, jd.required()), intersectCount(resume, jd.nice()), jd);
+    }
+
+    public Score score(long[] resume, JobProfile jd) {
+
+        int requiredMatched = intersectCount(resume, jd.required());
+        int niceMatched = intersectCount(resume, jd.nice());
+
+        return new Score(
+                weighted(requiredMatched, niceMatched, jd),
+                requiredMatched, jd.requiredCount(),
+                niceMatched, jd.niceCount());
+    }
+
+    /**
+     * Names of the skills in {@code wanted} that {@code resume} has
+     * ({@code present}) or lacks.
+     */
+    public List<String> names(long[] wanted, long[] resume, boolean present) {
+
+        String[] table = names;
+        List<String> result = new ArrayList<>();
+
+        for (int w = 0; w < wanted.length; w++) {
+            long have = w < resume.length ? resume[w] : 0;
+            long word = wanted[w] & (present ? have : ~have);
+            while (word != 0) {
+                result.add(table[(w << 6) | Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+
+        return result;
+    }
+
+    public int requiredWeight() {
+        return requiredWeight;
+    }
+
+    public int niceWeight() {
+        return niceWeight;
+    }
+
+    private int weighted(int requiredMatched, int niceMatched, JobProfile jd) {
+
+        int total = requiredWeight * jd.requiredCount() + niceWeight * jd.niceCount();
+        if (total == 0) {
+            return 0;
+        }
+
+        return (requiredWeight * requiredMatched + niceWeight * niceMatched) * 100 / total;
+    }
+
+    // -1 once the table is full
+    private int intern(String skill) {
+
+        Integer id = ids.get(skill);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = ids.get(skill);
+            if (id != null) {
+                return id;
+            }
+
+            int next = ids.size();
+            if (next >= maxSkills) {
+                return -1;
+            }
+
+            String[] table = names;
+            if (next == table.length) {
+                table = Arrays.copyOf(table, Math.max(256, next * 2));
+            }
+            table[next] = skill;
+            // publish the name before the ID, so readers never see an ID without one
+            names = table;
+            ids.put(skill, next);
+
+            return next;
+        }
+    }
+
+    private static int intersectCount(long[] a, long[] b) {
+        int n = Math.min(a.length, b.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    private static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -1,50 +1,314 @@
 package com.pranav.interviewai.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pranav.interviewai.entity.ParsedResume;
+import com.pranav.interviewai.exception.LlmResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AtsService {
 
+    public record Job(ExtractedSkills skills, AtsScorer.JobProfile profile) {
+    }
+
     private final GroqService groqService;
+    private final SkillMatcher skillMatcher;
+    private final AtsScorer scorer;
+    private final ResumeParserService parser;
+    private final ResumeCache resumeCache;
+    private final ResumeCompactor compactor;
+    private final CandidateIndex candidateIndex;
+    private final int minDictionaryMatches;
+
+    // recruiters score many resumes against one opening; keep its skills
+    private final BoundedCache<String, ExtractedSkills> jdSkillCache;
+    private final Counter jdCacheHits;
+    private final Counter jdCacheMisses;
+
+    private final Counter dictionaryOnly;
+    private final Counter llmRequested;
+    private final Counter llmUnsure;
+    private final Counter llmFallbackFailed;
+
+    // per LLM extraction: what the raw text would have cost and what was sent
+    private final DistributionSummary promptTokensOriginal;
+    private final DistributionSummary promptTokensSent;
+    private final DistributionSummary promptTokensSaved;
+    private final DistributionSummary promptChunks;
+
+    public AtsService(
+            GroqService groqService,
+            SkillMatcher skillMatcher,
+            AtsScorer scorer,
+            ResumeParserService parser,
+            ResumeCache resumeCache,
+            ResumeCompactor compactor,
+            CandidateIndex candidateIndex,
+            MeterRegistry registry,
+            @Value("${ats.jd-cache.max-entries:500}") int maxEntries,
+            @Value("${ats.jd-cache.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${ats.skills.min-dictionary-matches:3}") int minDictionaryMatches) {
 
-    public AtsService(GroqService groqService) {
         this.groqService = groqService;
+        this.skillMatcher = skillMatcher;
+        this.scorer = scorer;
+        this.parser = parser;
+        this.resumeCache = resumeCache;
+        this.compactor = compactor;
+        this.candidateIndex = candidateIndex;
+        this.minDictionaryMatches = minDictionaryMatches;
+        this.jdSkillCache = new BoundedCache<>(maxEntries, Duration.ofMinutes(ttlMinutes));
+
+        this.jdCacheHits = Counter.builder("ats.jd.cache.hits").register(registry);
+        this.jdCacheMisses = Counter.builder("ats.jd.cache.misses").register(registry);
+
+        FunctionCounter.builder("ats.jd.cache.evictions", jdSkillCache, BoundedCache::evictionCount)
+                .register(registry);
+        Gauge.builder("ats.jd.cache.size", jdSkillCache, BoundedCache::size)
+                .register(registry);
+
+        this.dictionaryOnly = extractions(registry, "dictionary");
+        this.llmRequested = extractions(registry, "llm-requested");
+        this.llmUnsure = extractions(registry, "llm-unsure");
+        this.llmFallbackFailed = extractions(registry, "llm-failed");
+
+        this.promptTokensOriginal = promptTokens(registry, "original");
+        this.promptTokensSent = promptTokens(registry, "sent");
+        this.promptTokensSaved = DistributionSummary.builder("ats.skills.prompt.tokens.saved")
+                .register(registry);
+        this.promptChunks = DistributionSummary.builder("ats.skills.prompt.chunks")
+                .register(registry);
+    }
+
+    /**
+     * Skills come from the local dictionary matcher. The LLM is asked as
+     * well when {@code useLlm} is set, or when the matcher found so few
+     * skills that the document is probably outside the taxonomy. A file
+     * seen before (same bytes) reuses its parsed text and skills.
+     */
+    public CompletableFuture<Map<String, Object>> analyze(
+            String userId,
+            MultipartFile resume,
+            String jdText,
+            boolean useLlm) throws Exception {
+
+        String fileHash;
+        try (InputStream in = resume.getInputStream()) {
+            fileHash = ContentHash.of(in);
+        }
+
+        CompletableFuture<ExtractedSkills> resumeSkills = resumeSkills(
+                userId, fileHash, resume.getOriginalFilename(), () -> parser.extractText(resume),
+                useLlm, LlmPriority.INTERACTIVE);
+        CompletableFuture<Job> job = job(jdText, useLlm);
+
+        return resumeSkills.thenCombine(job, this::score);
     }
 
-    public Map<String, Object> analyze(String resumeText, String jdText) throws Exception {
+    /**
+     * Skills of the file with the given hash, from the cache when possible.
+     * {@code parse} runs on the calling thread, only if the text is not
+     * cached either. The result is recorded in the candidate index as one
+     * of {@code userId}'s candidates.
+     */
+    public CompletableFuture<ExtractedSkills> resumeSkills(
+            String userId,
+            String fileHash,
+            String fileName,
+            Callable<String> parse,
+            boolean useLlm,
+            LlmPriority priority) throws Exception {
 
-    List<String> resumeSkills = extractSkills(resumeText);
-    List<String> jdSkills = extractSkills(jdText);
+        String skillKey = (useLlm ? "llm-" : "auto-") + skillMatcher.taxonomy().version();
 
-    Set<String> matched = new HashSet<>(resumeSkills);
-    matched.retainAll(jdSkills);
+        ParsedResume cached = resumeCache.get(fileHash);
+        if (cached != null) {
+            ExtractedSkills skills = ResumeCache.skills(cached, skillKey);
+            if (skills != null) {
+                candidateIndex.index(userId, fileHash, fileName, skills.skills());
+                return CompletableFuture.completedFuture(skills);
+            }
+        }
 
-    Set<String> missing = new HashSet<>(jdSkills);
-    missing.removeAll(resumeSkills);
+        String text;
+        if (cached != null && cached.getText() != null) {
+            text = cached.getText();
+        } else {
+            text = parse.call();
+            resumeCache.putText(fileHash, text);
+        }
 
-    int atsScore = 0;
-    if (!jdSkills.isEmpty()) {
-        atsScore = (matched.size() * 100) / jdSkills.size();
+        return extract(text, useLlm, priority).thenApply(skills -> {
+            if (!skills.partial()) {
+                resumeCache.putSkills(fileHash, skillKey, skills);
+            }
+            candidateIndex.index(userId, fileHash, fileName, skills.skills());
+            return skills;
+        });
     }
 
-    List<String> matchedList = new ArrayList<>(matched);
-    List<String> missingList = new ArrayList<>(missing);
+    /**
+     * Ranks the candidates {@code userId} has analyzed against a job
+     * description, using the stored skill sets rather than re-reading any
+     * resume.
+     */
+    public CompletableFuture<Map<String, Object>> rankCandidates(
+            String userId,
+            String jdText,
+            boolean useLlm,
+            int limit) {
+
+        return job(jdText, useLlm)
+                .thenApply(job -> candidateIndex.rank(userId, job.profile(), limit));
+    }
 
-    Map<String, Object> result = new HashMap<>();
-    result.put("atsScore", atsScore);
-    result.put("matchedSkills", matchedList);
-    result.put("missingSkills", missingList);
+    /**
+     * The JD's skills together with their required / nice-to-have split,
+     * ready for scoring.
+     */
+    public CompletableFuture<Job> job(String jdText, boolean useLlm) {
+        return jdSkills(jdText, useLlm)
+                .thenApply(skills -> new Job(skills, scorer.profile(jdText, skills)));
+    }
 
-    return result;
-}
+    public CompletableFuture<ExtractedSkills> jdSkills(String jdText, boolean useLlm) {
 
-    private List<String> extractSkills(String text) throws Exception {
+        String key = (useLlm ? "llm:" : "auto:") + ContentHash.of(jdText);
 
-        String response = groqService.extractSkills(text);
+        ExtractedSkills cached = jdSkillCache.get(key);
+        if (cached != null) {
+            jdCacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        jdCacheMisses.increment();
+
+        return extract(jdText, useLlm, LlmPriority.INTERACTIVE).thenApply(skills -> {
+            // a transient Groq failure must not pin a degraded set for the TTL
+            if (!skills.partial()) {
+                jdSkillCache.put(key, skills);
+            }
+            return skills;
+        });
+    }
+
+    public CompletableFuture<ExtractedSkills> extract(
+            String text,
+            boolean useLlm,
+            LlmPriority priority) {
+
+        Set<String> local = skillMatcher.match(text);
+        boolean unsure = local.size() < minDictionaryMatches;
+
+        if (!useLlm && !unsure) {
+            dictionaryOnly.increment();
+            return CompletableFuture.completedFuture(ExtractedSkills.of(local, List.of()));
+        }
+
+        CompletableFuture<ExtractedSkills> merged = extractSkills(text, priority)
+                .thenApply(llmSkills -> ExtractedSkills.of(local, llmSkills));
+
+        if (useLlm) {
+            llmRequested.increment();
+            return merged;
+        }
+
+        // only consulted because the matcher was unsure: its answer still stands
+        llmUnsure.increment();
+        return merged.exceptionally(e -> {
+            e.printStackTrace();
+            llmFallbackFailed.increment();
+            return ExtractedSkills.of(local, List.of()).asPartial();
+        });
+    }
+
+    public Map<String, Object> score(ExtractedSkills resume, Job job) {
+
+        AtsScorer.JobProfile jd = job.profile();
+        long[] bits = scorer.bits(resume.skills());
+        AtsScorer.Score score = scorer.score(bits, jd);
+
+        List<String> matched = scorer.names(jd.required(), bits, true);
+        matched.addAll(scorer.names(jd.nice(), bits, true));
+        List<String> missingRequired = scorer.names(jd.required(), bits, false);
+        List<String> missingNice = scorer.names(jd.nice(), bits, false);
+
+        List<String> missing = new ArrayList<>(missingRequired);
+        missing.addAll(missingNice);
+
+        Map<String, Object> required = new HashMap<>();
+        required.put("matched", score.requiredMatched());
+        required.put("total", score.requiredTotal());
+        required.put("weight", scorer.requiredWeight());
+        required.put("missing", missingRequired);
+
+        Map<String, Object> nice = new HashMap<>();
+        nice.put("matched", score.niceMatched());
+        nice.put("total", score.niceTotal());
+        nice.put("weight", scorer.niceWeight());
+        nice.put("missing", missingNice);
+
+        Map<String, Object> breakdown = new HashMap<>();
+        breakdown.put("required", required);
+        breakdown.put("niceToHave", nice);
+
+        Map<String, Object> skillSources = new HashMap<>();
+        skillSources.put("resume", resume.sources());
+        skillSources.put("jobDescription", job.skills().sources());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("atsScore", score.atsScore());
+        result.put("matchedSkills", matched);
+        result.put("missingSkills", missing);
+        result.put("breakdown", breakdown);
+        result.put("skillSources", skillSources);
+
+        return result;
+    }
+
+    /**
+     * Compacts the text, sends each chunk as its own prompt in parallel and
+     * merges the skill lists in chunk order.
+     */
+    private CompletableFuture<List<String>> extractSkills(String text, LlmPriority priority) {
+
+        ResumeCompactor.Compacted compacted = compactor.compact(text);
+
+        promptTokensOriginal.record(compacted.originalTokens());
+        promptTokensSent.record(compacted.compactedTokens());
+        promptTokensSaved.record(Math.max(0, compacted.originalTokens() - compacted.compactedTokens()));
+        promptChunks.record(compacted.chunks().size());
+
+        List<CompletableFuture<List<String>>> parts = new ArrayList<>();
+        for (String chunk : compacted.chunks()) {
+            parts.add(groqService.extractSkills(chunk, priority).thenApply(this::parseSkills));
+        }
+
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Set<String> merged = new LinkedHashSet<>();
+            for (CompletableFuture<List<String>> part : parts) {
+                merged.addAll(part.join());
+            }
+            return new ArrayList<>(merged);
+        });
+    }
+
+    private List<String> parseSkills(String response) {
 
         ObjectMapper mapper = new ObjectMapper();
         String cleaned = response
@@ -52,13 +316,32 @@ public class AtsService {
         .replace("```", "")
         .trim();
 
-        JsonNode node = mapper.readTree(cleaned);
+        JsonNode node;
+        try {
+            node = mapper.readTree(cleaned);
+        } catch (JsonProcessingException e) {
+            throw new LlmResponseException(
+                    LlmOperation.SKILLS.getKey(), 200, "Invalid skills response", false, e);
+        }
 
+        // canonical names, so "K8s" from the LLM lines up with "kubernetes"
         List<String> skills = new ArrayList<>();
-        for (JsonNode skill : node.get("skills")) {
-            skills.add(skill.asText().toLowerCase());
+        for (JsonNode skill : node.path("skills")) {
+            skills.add(skillMatcher.taxonomy().canonical(skill.asText()));
         }
 
         return skills;
     }
+
+    private static DistributionSummary promptTokens(MeterRegistry registry, String stage) {
+        return DistributionSummary.builder("ats.skills.prompt.tokens")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private static Counter extractions(MeterRegistry registry, String path) {
+        return Counter.builder("ats.skills.extractions")
+                .tag("path", path)
+                .register(registry);
+    }
 }
@@ -0,0 +1,171 @@
+package com.pranav.interviewai.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pranav.interviewai.entity.AttemptArchive;
+import com.pranav.interviewai.entity.InterviewAttempt;
+import com.pranav.interviewai.repository.AttemptArchiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves the large text fields of old attempts (answer, model answer,
+ * feedback, question) into {@code attempt_archive} as one gzipped document,
+ * so the documents the profile pages scan stay small. Fields shorter than
+ * {@code retention.attempts.min-chars} are left where they are.
+ *
+ * Readers that show the text call {@link #restore} first; it is a single
+ * lookup for all archived attempts in the list.
+ */
+@Service
+public class AttemptArchiveService {
+
+    private record Field(
+            String name,
+            Function<InterviewAttempt, String> getter,
+            BiConsumer<InterviewAttempt, String> setter) {
+    }
+
+    private static final List<Field> FIELDS = List.of(
+            new Field("question", InterviewAttempt::getQuestion, InterviewAttempt::setQuestion),
+            new Field("userAnswer", InterviewAttempt::getUserAnswer, InterviewAttempt::setUserAnswer),
+            new Field("modelAnswer", InterviewAttempt::getModelAnswer, InterviewAttempt::setModelAnswer),
+            new Field("feedback", InterviewAttempt::getFeedback, InterviewAttempt::setFeedback));
+
+    public record Archived(int originalBytes, int compressedBytes) {
+    }
+
+    private final AttemptArchiveRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int minChars;
+
+    public AttemptArchiveService(
+            AttemptArchiveRepository repository,
+            MongoTemplate mongoTemplate,
+            @Value("${retention.attempts.min-chars:200}") int minChars) {
+
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.minChars = minChars;
+    }
+
+    /**
+     * Archives one attempt and marks it archived, even if none of its
+     * fields was large enough to move, so it is not looked at again.
+     * The archive is written before the attempt is trimmed, so an
+     * interrupted sweep loses nothing and simply archives it again.
+     */
+    public Archived archive(InterviewAttempt attempt) throws IOException {
+
+        Map<String, String> moved = new LinkedHashMap<>();
+        for (Field field : FIELDS) {
+            String value = field.getter().apply(attempt);
+            if (value != null && value.length() >= minChars) {
+                moved.put(field.name(), value);
+            }
+        }
+
+        Update update = new Update().set("archived", true);
+        Archived archived = new Archived(0, 0);
+
+        if (!moved.isEmpty()) {
+
+            byte[] json = mapper.writeValueAsBytes(moved);
+            byte[] payload = gzip(json);
+
+            repository.save(new AttemptArchive(
+                    attempt.getId(),
+                    attempt.getUserId(),
+                    payload,
+                    json.length,
+                    attempt.getCreatedAt(),
+                    LocalDateTime.now()));
+
+            moved.keySet().forEach(update::unset);
+            archived = new Archived(json.length, payload.length);
+        }
+
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(attempt.getId())),
+                update,
+                InterviewAttempt.class);
+
+        return archived;
+    }
+
+    /**
+     * Puts archived text back into the given attempts, in place. Nothing
+     * is written; the attempts stay archived in Mongo.
+     */
+    public List<InterviewAttempt> restore(List<InterviewAttempt> attempts) {
+
+        List<String> ids = attempts.stream()
+                .filter(a -> Boolean.TRUE.equals(a.getArchived()))
+                .map(InterviewAttempt::getId)
+                .toList();
+
+        if (ids.isEmpty()) {
+            return attempts;
+        }
+
+        Map<String, AttemptArchive> archives = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(AttemptArchive::getId, Function.identity()));
+
+        for (InterviewAttempt attempt : attempts) {
+
+            AttemptArchive archive = archives.get(attempt.getId());
+            if (archive == null) {
+                continue;
+            }
+
+            try {
+                Map<String, String> fields = mapper.readValue(gunzip(archive.getPayload()), new TypeReference<>() {
+                });
+                for (Field field : FIELDS) {
+                    if (fields.containsKey(field.name())) {
+                        field.setter().accept(attempt, fields.get(field.name()));
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return attempts;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 3 + 32);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.InterviewAttempt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves recordings saved before the {@link AudioStore} existed, as
+ * {@code <uuid>.webm} files in a directory, into the configured store under
+ * their content-hash IDs, and points the attempts that referenced them at
+ * the new URLs. Enabled with {@code audio.migration.enabled}; it can be
+ * interrupted and rerun, since a file is only deleted once its attempts
+ * have been updated. Progress is counted in {@code audio.migration.files}
+ * (by result) and {@code audio.migration.attempts}.
+ */
+@Service
+@ConditionalOnProperty(name = "audio.migration.enabled", havingValue = "true")
+public class AudioMigrationService {
+
+    private static final String HASHED = "[0-9a-f]{64}\\.[a-z0-9]+";
+
+    private final AudioStore store;
+    private final AudioStorageService audioStorage;
+    private final MongoTemplate mongoTemplate;
+    private final Path sourceDir;
+
+    private final Counter moved;
+    private final Counter duplicates;
+    private final Counter failed;
+    private final Counter attempts;
+
+    public AudioMigrationService(
+            AudioStore store,
+            AudioStorageService audioStorage,
+            MongoTemplate mongoTemplate,
+            MeterRegistry registry,
+            @Value("${audio.migration.source-dir:uploads/audio}") String sourceDir) {
+
+        this.store = store;
+        this.audioStorage = audioStorage;
+        this.mongoTemplate = mongoTemplate;
+        this.sourceDir = Paths.get(sourceDir);
+
+        this.moved = files(registry, "moved");
+        this.duplicates = files(registry, "duplicate");
+        this.failed = files(registry, "failed");
+        this.attempts = Counter.builder("audio.migration.attempts")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+
+        if (!Files.isDirectory(sourceDir)) {
+            return;
+        }
+
+        List<Path> legacy;
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            legacy = files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> isLegacy(file.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        for (Path file : legacy) {
+            try {
+                String name = file.getFileName().toString();
+                String contentType = AudioStore.contentType(name);
+                String id = AudioStore.id(ContentHash.of(file), contentType);
+
+                if (store.save(id, file, contentType)) {
+                    moved.increment();
+                } else {
+                    duplicates.increment();
+                }
+
+                attempts.increment(mongoTemplate.updateMulti(
+                        new Query(Criteria.where("audioUrl").is(audioStorage.url(name))),
+                        new Update().set("audioUrl", audioStorage.url(id)),
+                        InterviewAttempt.class).getModifiedCount());
+
+                Files.deleteIfExists(file);
+
+            } catch (Exception e) {
+                failed.increment();
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static Counter files(MeterRegistry registry, String result) {
+        return Counter.builder("audio.migration.files")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static boolean isLegacy(String name) {
+        return !name.startsWith(".") && !name.endsWith(".part") && !name.matches(HASHED);
+    }
+}
@@ -0,0 +1,176 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.exception.UploadLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Accepts recorded answers and hands them to the {@link AudioStore}.
+ * Uploads and streamed chunks are spooled to {@code audio.spool.dir} once,
+ * through a channel and without buffering the recording on the heap, and
+ * hashed on the way; the hash names the stored object, so a recording that
+ * is already stored is not stored again. Deepgram and playback both read
+ * from the store.
+ */
+@Service
+public class AudioStorageService {
+
+    // created is false when the same bytes were already stored
+    public record StoredAudio(String id, long bytes, String contentType, boolean created) {
+    }
+
+    private static final int CHUNK = 64 * 1024;
+
+    private final AudioStore store;
+    private final Path spoolDir;
+    private final long maxBytes;
+
+    private final DistributionSummary bytesWritten;
+    private final Counter deduplicated;
+
+    public AudioStorageService(
+            AudioStore store,
+            MeterRegistry registry,
+            // inside the local store's directory, so saving there is a link, not a copy
+            @Value("${audio.spool.dir:${audio.storage.dir:uploads/audio}/.spool}") String spoolDir,
+            @Value("${audio.upload.max-bytes:26214400}") long maxBytes) {
+
+        this.store = store;
+        this.spoolDir = Paths.get(spoolDir);
+        this.maxBytes = maxBytes;
+
+        this.bytesWritten = audioBytes(registry, "stored");
+        this.deduplicated = Counter.builder("audio.store.deduplicated")
+                .register(registry);
+    }
+
+    public StoredAudio store(MultipartFile file) throws IOException {
+
+        if (file.getSize() > maxBytes) {
+            throw new UploadLimitExceededException("Recording exceeds " + maxBytes + " bytes");
+        }
+
+        try (AudioWriter writer = open(file.getContentType());
+             InputStream is = file.getInputStream();
+             ReadableByteChannel in = Channels.newChannel(is)) {
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK);
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                writer.write(buffer);
+                buffer.clear();
+            }
+
+            return writer.commit();
+        }
+    }
+
+    /**
+     * For recordings that arrive in pieces, such as a streamed answer.
+     * Nothing reaches the store until {@link AudioWriter#commit}.
+     */
+    public AudioWriter open(String contentType) throws IOException {
+        Files.createDirectories(spoolDir);
+        return new AudioWriter(contentType != null ? contentType : "audio/webm");
+    }
+
+    public InputStream read(String id) throws IOException {
+        return store.open(id, 0);
+    }
+
+    public void delete(String id) {
+        store.delete(id);
+    }
+
+    public String url(String id) {
+        return "/audio/" + id;
+    }
+
+    public final class AudioWriter implements AutoCloseable {
+
+        private final String contentType;
+        private final Path partial;
+        private final FileChannel out;
+        private final MessageDigest digest = ContentHash.sha256();
+        private long written;
+
+        private AudioWriter(String contentType) throws IOException {
+            this.contentType = contentType;
+            this.partial = spoolDir.resolve(UUID.randomUUID() + ".part");
+            this.out = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        public void write(ByteBuffer data) throws IOException {
+
+            // a declared size is the client's word; the bytes are not
+            checkLimit(written + data.remaining());
+
+            digest.update(data.duplicate());
+            while (data.hasRemaining()) {
+                written += out.write(data);
+            }
+        }
+
+        public long bytes() {
+            return written;
+        }
+
+        public StoredAudio commit() throws IOException {
+
+            out.close();
+
+            String id = AudioStore.id(HexFormat.of().formatHex(digest.digest()), contentType);
+            boolean created;
+            try {
+                created = store.save(id, partial, contentType);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+
+            if (created) {
+                bytesWritten.record(written);
+            } else {
+                deduplicated.increment();
+            }
+
+            return new StoredAudio(id, written, contentType, created);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+            Files.deleteIfExists(partial);
+        }
+
+        private void checkLimit(long bytes) {
+            if (bytes > maxBytes) {
+                throw new UploadLimitExceededException("Recording exceeds " + maxBytes + " bytes");
+            }
+        }
+    }
+
+    static DistributionSummary audioBytes(MeterRegistry registry, String direction) {
+        return DistributionSummary.builder("audio.io.bytes")
+                .tag("direction", direction)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.pranav.interviewai.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Where recordings live, selected with {@code audio.store}: {@code local}
+ * (a directory, the default) or {@code gridfs} (shared by every node).
+ *
+ * Objects are named by the SHA-256 of their bytes plus an extension for the
+ * format, written once and never changed; the same recording uploaded
+ * twice is stored once, and an ID always names the same bytes.
+ */
+public interface AudioStore {
+
+    record AudioObject(String id, long length, String contentType, Instant created) {
+    }
+
+    Map<String, String> EXTENSIONS = Map.of(
+            "audio/webm", ".webm",
+            "audio/ogg", ".ogg",
+            "audio/wav", ".wav",
+            "audio/x-wav", ".wav",
+            "audio/mpeg", ".mp3",
+            "audio/mp4", ".m4a");
+
+    /**
+     * Stores {@code source} as {@code id}, unless that ID is already
+     * stored. Returns whether anything was written. {@code source} may be
+     * moved; the caller deletes it if it is still there afterwards.
+     */
+    boolean save(String id, Path source, String contentType) throws IOException;
+
+    Optional<AudioObject> find(String id);
+
+    /**
+     * The object's bytes from {@code offset} to the end.
+     */
+    InputStream open(String id, long offset) throws IOException;
+
+    boolean delete(String id);
+
+    static String id(String sha256, String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        return sha256 + EXTENSIONS.getOrDefault(type, ".webm");
+    }
+
+    /**
+     * Guessed from the extension, for stores that keep no metadata.
+     */
+    static String contentType(String id) {
+        String lower = id.toLowerCase(Locale.ROOT);
+        return EXTENSIONS.entrySet().stream()
+                .filter(e -> lower.endsWith(e.getValue()) && !e.getKey().equals("audio/x-wav"))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse("application/octet-stream");
+    }
+
+    /**
+     * IDs come from URLs; anything else could name a file outside the store.
+     */
+    static boolean isValidId(String id) {
+        return id != null && id.matches("[A-Za-z0-9][A-Za-z0-9._-]{0,127}") && !id.contains("..");
+    }
+}
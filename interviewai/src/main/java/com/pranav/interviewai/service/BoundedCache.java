@@ -0,0 +1,68 @@
+package com.pranav.interviewai.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small thread-safe LRU map with an optional time-to-live. Used as the
+ * in-process tier of the content-addressed caches in front of Groq.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final AtomicLong evictions = new AtomicLong();
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    public BoundedCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (ttlNanos > 0 && System.nanoTime() - entry.storedAt() > ttlNanos) {
+            map.remove(key);
+            evictions.incrementAndGet();
+            return null;
+        }
+
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    public synchronized void remove(K key) {
+        map.remove(key);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    private record Entry<V>(V value, long storedAt) {
+    }
+}
@@ -0,0 +1,337 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.CandidateProfile;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index from skills to the candidates (stored resumes)
+ * that have them, so a job description can be ranked against every
+ * candidate without touching the LLM.
+ *
+ * Skills and candidates are interned to dense int IDs; each skill keeps a
+ * {@link SkillBitmap} of candidate IDs, and so does each user, for the
+ * resumes they uploaded. A ranking only ever covers the caller's own
+ * candidates. Profiles are persisted to
+ * {@code candidate_profiles} and the index is rebuilt from there at
+ * startup.
+ */
+@Service
+public class CandidateIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final SkillTaxonomy taxonomy;
+    private final AtsScorer scorer;
+    private final Timer rankTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> skillIds = new HashMap<>();
+    private final List<String> skillNames = new ArrayList<>();
+    private final List<SkillBitmap> postings = new ArrayList<>();
+
+    private final Map<String, Integer> candidateIds = new HashMap<>();
+    private final List<String> candidateKeys = new ArrayList<>();
+    // sorted skill IDs per candidate, to undo the postings on re-index
+    private final List<int[]> candidateSkills = new ArrayList<>();
+    // the same skills as an AtsScorer bitset, built once at index time
+    private final List<long[]> candidateBits = new ArrayList<>();
+    // candidates per uploading user, with the file name that user gave
+    private final Map<String, Owned> owned = new HashMap<>();
+
+    private record Owned(SkillBitmap candidates, Map<Integer, String> fileNames) {
+    }
+
+    public CandidateIndex(
+            MongoTemplate mongoTemplate,
+            SkillMatcher skillMatcher,
+            AtsScorer scorer,
+            MeterRegistry registry) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.taxonomy = skillMatcher.taxonomy();
+        this.scorer = scorer;
+
+        this.rankTimer = Timer.builder("candidate.index.rank").register(registry);
+
+        Gauge.builder("candidate.index.candidates", this, CandidateIndex::candidateCount)
+                .register(registry);
+        Gauge.builder("candidate.index.skills", this, CandidateIndex::skillCount)
+                .register(registry);
+    }
+
+    /**
+     * Records a resume's skills as one of {@code userId}'s candidates and
+     * persists the profile. A profile that neither changed nor gained an
+     * owner is left alone.
+     */
+    public void index(String userId, String fileHash, String fileName, Collection<String> skills) {
+
+        SortedSet<String> normalized = new TreeSet<>();
+        for (String skill : skills) {
+            normalized.add(taxonomy.canonical(skill));
+        }
+
+        boolean changed = apply(fileHash, normalized, true);
+        boolean newOwner = userId != null && addOwner(userId, fileHash, fileName);
+        if (!changed && !newOwner) {
+            return;
+        }
+
+        Update update = new Update()
+                .set("skills", new ArrayList<>(normalized))
+                .set("updatedAt", LocalDateTime.now());
+        if (userId != null) {
+            update.set("owners." + userId, fileName);
+        }
+
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("id").is(fileHash)), update, CandidateProfile.class);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Scores {@code userId}'s candidates against a job and returns the best
+     * {@code limit}. The score is the same weighted required / nice-to-have
+     * score {@code /analyze} reports, computed on each candidate's stored
+     * bitset without touching strings. Ties go to the candidate whose
+     * matches are rarer among the user's candidates.
+     */
+    public Map<String, Object> rank(String userId, AtsScorer.JobProfile jd, int limit) {
+
+        long start = System.nanoTime();
+
+        List<String> wanted = scorer.names(jd.required(), jd.required(), true);
+        wanted.addAll(scorer.names(jd.nice(), jd.nice(), true));
+
+        lock.readLock().lock();
+        try {
+            Owned owner = owned.getOrDefault(userId, new Owned(new SkillBitmap(), Map.of()));
+            SkillBitmap mine = owner.candidates();
+
+            // only the user's own candidates are looked at, in ascending ID order
+            int[] members = new int[mine.cardinality()];
+            int[] next = {0};
+            mine.forEach(candidate -> members[next[0]++] = candidate);
+            int candidates = members.length;
+
+            int[] scores = new int[candidates];
+            for (int i = 0; i < candidates; i++) {
+                scores[i] = scorer.atsScore(candidateBits.get(members[i]), jd);
+            }
+
+            // rarity within the user's own candidates, for the tie-break
+            double[] weighted = new double[candidates];
+            double totalWeight = 0;
+            for (String skill : wanted) {
+                Integer id = skillIds.get(skill);
+                SkillBitmap bitmap = id == null ? new SkillBitmap() : SkillBitmap.and(postings.get(id), mine);
+
+                double weight = Math.log(1 + (double) (candidates + 1) / (bitmap.cardinality() + 1));
+                totalWeight += weight;
+                bitmap.forEach(candidate -> weighted[Arrays.binarySearch(members, candidate)] += weight);
+            }
+
+            Comparator<Integer> order = Comparator
+                    .<Integer>comparingInt(i -> scores[i])
+                    .thenComparingDouble(i -> weighted[i])
+                    .thenComparing(i -> candidateKeys.get(members[i]), Comparator.reverseOrder());
+
+            PriorityQueue<Integer> top = new PriorityQueue<>(order);
+            int considered = 0;
+            int fullMatches = 0;
+            for (int i = 0; i < candidates; i++) {
+                if (scores[i] == 0) {
+                    continue;
+                }
+                considered++;
+                if (scores[i] == 100) {
+                    fullMatches++;
+                }
+                top.add(i);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Integer> best = new ArrayList<>(top);
+            best.sort(order.reversed());
+
+            List<Map<String, Object>> ranking = new ArrayList<>();
+            for (int i : best) {
+                ranking.add(entry(members[i], owner, jd, weighted[i], totalWeight));
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("jdSkills", wanted);
+            result.put("indexedCandidates", candidates);
+            result.put("matchingCandidates", considered);
+            result.put("fullMatches", fullMatches);
+            result.put("candidates", ranking);
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+            rankTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        try (Stream<CandidateProfile> profiles = mongoTemplate.stream(new Query(), CandidateProfile.class)) {
+            for (CandidateProfile profile : (Iterable<CandidateProfile>) profiles::iterator) {
+                List<String> skills = profile.getSkills() == null ? List.of() : profile.getSkills();
+                // a resume analyzed while we were loading is newer than its stored copy
+                apply(profile.getId(), new TreeSet<>(skills), false);
+                // profiles stored before ownership was recorded belong to nobody
+                if (profile.getOwners() != null) {
+                    profile.getOwners().forEach((owner, fileName) -> addOwner(owner, profile.getId(), fileName));
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public int candidateCount() {
+        lock.readLock().lock();
+        try {
+            return candidateKeys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int skillCount() {
+        lock.readLock().lock();
+        try {
+            return skillNames.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Object> entry(
+            int candidate,
+            Owned owner,
+            AtsScorer.JobProfile jd,
+            double weighted,
+            double totalWeight) {
+
+        long[] bits = candidateBits.get(candidate);
+        AtsScorer.Score score = scorer.score(bits, jd);
+
+        List<String> matchedSkills = scorer.names(jd.required(), bits, true);
+        matchedSkills.addAll(scorer.names(jd.nice(), bits, true));
+        List<String> missingSkills = scorer.names(jd.required(), bits, false);
+        missingSkills.addAll(scorer.names(jd.nice(), bits, false));
+
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("candidateId", candidateKeys.get(candidate));
+        entry.put("fileName", owner.fileNames().get(candidate));
+        entry.put("atsScore", score.atsScore());
+        entry.put("requiredMatched", score.requiredMatched());
+        entry.put("requiredTotal", score.requiredTotal());
+        entry.put("weightedScore", totalWeight == 0 ? 0 : (int) Math.round(weighted * 100 / totalWeight));
+        entry.put("matchedSkills", matchedSkills);
+        entry.put("missingSkills", missingSkills);
+
+        return entry;
+    }
+
+    // returns false when nothing changed (or, without replace, when already present)
+    private boolean apply(String key, SortedSet<String> skills, boolean replace) {
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = candidateIds.get(key);
+            if (existing != null && !replace) {
+                return false;
+            }
+
+            int[] ids = new int[skills.size()];
+            int i = 0;
+            for (String skill : skills) {
+                ids[i++] = internSkill(skill);
+            }
+            Arrays.sort(ids);
+            long[] bits = scorer.bits(skills);
+
+            int candidate;
+            if (existing != null) {
+                candidate = existing;
+                if (Arrays.equals(candidateSkills.get(candidate), ids)) {
+                    return false;
+                }
+                for (int old : candidateSkills.get(candidate)) {
+                    postings.get(old).remove(candidate);
+                }
+                candidateSkills.set(candidate, ids);
+                candidateBits.set(candidate, bits);
+            } else {
+                candidate = candidateKeys.size();
+                candidateIds.put(key, candidate);
+                candidateKeys.add(key);
+                candidateSkills.add(ids);
+                candidateBits.add(bits);
+            }
+
+            for (int id : ids) {
+                postings.get(id).add(candidate);
+            }
+
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // returns false when the user already had this file under this name
+    private boolean addOwner(String userId, String key, String fileName) {
+
+        lock.writeLock().lock();
+        try {
+            Integer candidate = candidateIds.get(key);
+            if (candidate == null) {
+                return false;
+            }
+
+            Owned owner = owned.computeIfAbsent(userId, id -> new Owned(new SkillBitmap(), new HashMap<>()));
+            if (owner.candidates().contains(candidate)
+                    && Objects.equals(owner.fileNames().get(candidate), fileName)) {
+                return false;
+            }
+
+            owner.candidates().add(candidate);
+            owner.fileNames().put(candidate, fileName);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int internSkill(String skill) {
+        return skillIds.computeIfAbsent(skill, name -> {
+            skillNames.add(name);
+            postings.add(new SkillBitmap());
+            return skillNames.size() - 1;
+        });
+    }
+}
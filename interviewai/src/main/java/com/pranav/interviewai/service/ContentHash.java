@@ -0,0 +1,80 @@
+package com.pranav.interviewai.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Content-addressed keys for cached LLM output. Text is normalized first so
+ * that whitespace, case and trailing punctuation do not defeat the cache.
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    public static String normalize(String text) {
+
+        if (text == null) {
+            return "";
+        }
+
+        return Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll("[\\s?.!:;]+$", "")
+                .trim();
+    }
+
+    public static String of(String... parts) {
+
+        MessageDigest digest = sha256();
+        for (String part : parts) {
+            digest.update(normalize(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String of(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    /**
+     * Hash of raw bytes, read in chunks; for uploads, which can be large.
+     */
+    public static String of(InputStream in) throws IOException {
+
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, n);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String of(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return of(in);
+        }
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
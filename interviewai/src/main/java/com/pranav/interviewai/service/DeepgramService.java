@@ -2,12 +2,22 @@ package com.pranav.interviewai.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pranav.interviewai.exception.TranscriptionException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.*;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class DeepgramService {
@@ -15,41 +25,154 @@ public class DeepgramService {
     @Value("${deepgram.api.key}")
     private String apiKey;
 
+    // filler words are dropped by default; fluency analysis needs them
+    @Value("${deepgram.url:https://api.deepgram.com/v1/listen?filler_words=true}")
+    private String url;
+
     private final OkHttpClient client = new OkHttpClient();
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public String transcribeAudio(File audioFile) {
-
-        try {
+    private final TranscriptCache transcriptCache;
+    private final AudioStorageService audioStorage;
+    // one call per recording, however many requests are waiting on it
+    private final Map<String, CompletableFuture<Transcript>> inFlight = new ConcurrentHashMap<>();
 
-            RequestBody body = RequestBody.create(
-                    audioFile,
-                    MediaType.parse("audio/wav")
-            );
+    private final DistributionSummary bytesSent;
 
-            Request request = new Request.Builder()
-                    .url("https://api.deepgram.com/v1/listen")
-                    .addHeader("Authorization", "Token " + apiKey)
-                    .addHeader("Content-Type", "audio/wav")
-                    .post(body)
-                    .build();
+    public DeepgramService(MeterRegistry registry, TranscriptCache transcriptCache, AudioStorageService audioStorage) {
+        this.transcriptCache = transcriptCache;
+        this.audioStorage = audioStorage;
+        this.bytesSent = AudioStorageService.audioBytes(registry, "transcription");
+    }
 
-            Response response = client.newCall(request).execute();
+    /**
+     * Transcribes stored audio, from the cache if the same bytes were
+     * transcribed before with the same options. A resubmission that arrives
+     * while the first call is still running waits for that call.
+     */
+    public CompletableFuture<Transcript> transcribeAsync(AudioStorageService.StoredAudio audio) {
 
-            JsonNode root = mapper.readTree(response.body().string());
+        // the ID is the content hash; the options change the output, so
+        // they are part of the key too
+        String key = audio.id() + "-" + ContentHash.of(url).substring(0, 12);
 
-            return root
-                    .path("results")
-                    .path("channels")
-                    .get(0)
-                    .path("alternatives")
-                    .get(0)
-                    .path("transcript")
-                    .asText();
+        Transcript cached = transcriptCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
 
-        } catch (IOException e) {
-            e.printStackTrace();
-            return "Deepgram Exception";
+        CompletableFuture<Transcript> created = new CompletableFuture<>();
+        CompletableFuture<Transcript> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
         }
+
+        RequestBody body = body(audio.contentType(), audio.bytes(), () -> audioStorage.read(audio.id()));
+
+        transcribe(body, audio.contentType(), key).whenComplete((transcript, error) -> {
+            inFlight.remove(key, created);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(transcript);
+            }
+        });
+
+        return created;
+    }
+
+    private interface AudioSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Streams the audio straight from where it is stored into the request
+     * body; the bytes sent are recorded once the body has been written.
+     * OkHttp may write the body again on a retry, so the source is opened
+     * per write.
+     */
+    private RequestBody body(String contentType, long length, AudioSource audio) {
+
+        MediaType mediaType = MediaType.parse(contentType);
+
+        return new RequestBody() {
+
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return length;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (Source source = Okio.source(audio.open())) {
+                    bytesSent.record(sink.writeAll(source));
+                }
+            }
+        };
+    }
+
+    /**
+     * The result keeps Deepgram's word timings and confidences, and is
+     * cached under {@code cacheKey}. A failed call
+     * fails the future with {@link TranscriptionException} rather than
+     * passing off an error as the candidate's answer.
+     */
+    private CompletableFuture<Transcript> transcribe(RequestBody body, String contentType, String cacheKey) {
+
+        Request request = new Request.Builder()
+                .url(url)
+                .addHeader("Authorization", "Token " + apiKey)
+                .addHeader("Content-Type", contentType)
+                .post(body)
+                .build();
+
+        CompletableFuture<Transcript> future = new CompletableFuture<>();
+        long start = System.nanoTime();
+
+        client.newCall(request).enqueue(new Callback() {
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                e.printStackTrace();
+                future.completeExceptionally(new TranscriptionException("Transcription service unreachable", e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+
+                    if (!response.isSuccessful()) {
+                        future.completeExceptionally(new TranscriptionException(
+                                "Transcription failed with HTTP " + response.code(), null));
+                        return;
+                    }
+
+                    JsonNode root = mapper.readTree(response.body().string());
+
+                    Transcript transcript = Transcript.from(root
+                            .path("results")
+                            .path("channels")
+                            .path(0)
+                            .path("alternatives")
+                            .path(0));
+
+                    transcriptCache.put(cacheKey, transcript,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+                    future.complete(transcript);
+
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    future.completeExceptionally(new TranscriptionException("Unreadable transcription response", e));
+                }
+            }
+        });
+
+        return future;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.pranav.interviewai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Remembers evaluations so a retried or double-clicked submission gets the
+ * stored score and feedback back without another LLM call. Keys include
+ * the evaluator prompt version, so editing a template orphans old entries.
+ */
+@Component
+public class EvaluationMemo {
+
+    private final BoundedCache<String, String> memo;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public EvaluationMemo(
+            MeterRegistry registry,
+            @Value("${evaluation-memo.max-entries:5000}") int maxEntries,
+            @Value("${evaluation-memo.ttl-minutes:60}") long ttlMinutes) {
+
+        this.memo = new BoundedCache<>(maxEntries, Duration.ofMinutes(ttlMinutes));
+
+        this.hits = Counter.builder("evaluation.memo.hits").register(registry);
+        this.misses = Counter.builder("evaluation.memo.misses").register(registry);
+
+        FunctionCounter.builder("evaluation.memo.evictions", memo, BoundedCache::evictionCount)
+                .register(registry);
+        Gauge.builder("evaluation.memo.size", memo, BoundedCache::size)
+                .register(registry);
+    }
+
+    public static String key(String promptVersion, String question, String answer) {
+        return ContentHash.of(promptVersion, question, answer);
+    }
+
+    public CompletableFuture<String> get(String key, Supplier<CompletableFuture<String>> evaluate) {
+
+        String stored = memo.get(key);
+        if (stored != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(stored);
+        }
+
+        misses.increment();
+
+        return evaluate.get().thenApply(evaluation -> {
+            // never pin a malformed reply; a retry should get a fresh attempt
+            if (isJsonObject(evaluation)) {
+                memo.put(key, evaluation);
+            }
+            return evaluation;
+        });
+    }
+
+    private boolean isJsonObject(String text) {
+        try {
+            return mapper.readTree(text).isObject();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pranav.interviewai.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Skills found in one document, each with the path that produced it:
+ * {@code dictionary}, {@code llm}, or {@code dictionary+llm}. A
+ * {@code partial} result is one where the LLM was wanted but failed, so it
+ * should not be cached.
+ */
+public record ExtractedSkills(Map<String, String> sources, boolean partial) {
+
+    public static final String DICTIONARY = "dictionary";
+    public static final String LLM = "llm";
+    public static final String BOTH = "dictionary+llm";
+
+    public ExtractedSkills {
+        sources = Collections.unmodifiableMap(new LinkedHashMap<>(sources));
+    }
+
+    public ExtractedSkills(Map<String, String> sources) {
+        this(sources, false);
+    }
+
+    public static ExtractedSkills of(Collection<String> dictionary, Collection<String> llm) {
+
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (String skill : dictionary) {
+            sources.put(skill, DICTIONARY);
+        }
+        for (String skill : llm) {
+            sources.merge(skill, LLM, (existing, added) -> existing.equals(DICTIONARY) ? BOTH : existing);
+        }
+
+        return new ExtractedSkills(sources);
+    }
+
+    public ExtractedSkills asPartial() {
+        return new ExtractedSkills(sources, true);
+    }
+
+    public List<String> skills() {
+        return new ArrayList<>(sources.keySet());
+    }
+}
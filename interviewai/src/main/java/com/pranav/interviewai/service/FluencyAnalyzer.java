@@ -0,0 +1,227 @@
+package com.pranav.interviewai.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Scores delivery from the recognizer's word timings, which an LLM reading
+ * the plain transcript never sees.
+ *
+ * Fluency starts at 10 and loses points for a pace outside
+ * {@code voice.fluency.min-wpm}..{@code max-wpm}, for filler words, and for
+ * long pauses. Clarity follows the recognizer's confidence: mumbled or
+ * unclear words come back with low confidence, and runs of them are
+ * reported as spans. Both are 0-10, like the LLM's scores.
+ */
+@Component
+public class FluencyAnalyzer {
+
+    public record Span(double start, double end, String text) {
+    }
+
+    public record Fluency(
+            int fluencyScore,
+            int clarityScore,
+            int wordsPerMinute,
+            double speakingSeconds,
+            int shortPauses,
+            int mediumPauses,
+            int longPauses,
+            double longestPause,
+            int fillerWords,
+            double fillersPer100Words,
+            double meanConfidence,
+            List<Span> lowConfidenceSpans) {
+
+        public Map<String, Object> details() {
+
+            Map<String, Object> pauses = new LinkedHashMap<>();
+            pauses.put("short", shortPauses);
+            pauses.put("medium", mediumPauses);
+            pauses.put("long", longPauses);
+            pauses.put("longestSeconds", round2(longestPause));
+
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("wordsPerMinute", wordsPerMinute);
+            details.put("speakingSeconds", round2(speakingSeconds));
+            details.put("pauses", pauses);
+            details.put("fillerWords", fillerWords);
+            details.put("fillersPer100Words", round2(fillersPer100Words));
+            details.put("meanConfidence", round2(meanConfidence));
+            details.put("lowConfidenceSpans", lowConfidenceSpans);
+
+            return details;
+        }
+
+        /**
+         * One sentence for the feedback text, since the LLM no longer
+         * comments on delivery.
+         */
+        public String summary() {
+            return String.format(Locale.ROOT,
+                    "Delivery: %d words per minute, %d filler word%s, %d long pause%s.",
+                    wordsPerMinute,
+                    fillerWords, fillerWords == 1 ? "" : "s",
+                    longPauses, longPauses == 1 ? "" : "s");
+        }
+    }
+
+    // hesitation sounds only; "like" and "so" are too often real words
+    private static final Set<String> FILLERS = Set.of(
+            "uh", "um", "uhm", "umm", "erm", "er", "ah", "eh", "hmm", "mm", "mhm");
+
+    private static final int MAX_SPANS = 10;
+
+    private final double pauseSeconds;
+    private final double mediumPauseSeconds;
+    private final double longPauseSeconds;
+    private final double lowConfidence;
+    private final int minWpm;
+    private final int maxWpm;
+
+    public FluencyAnalyzer(
+            @Value("${voice.fluency.pause-ms:500}") long pauseMs,
+            @Value("${voice.fluency.medium-pause-ms:1000}") long mediumPauseMs,
+            @Value("${voice.fluency.long-pause-ms:2000}") long longPauseMs,
+            @Value("${voice.fluency.low-confidence:0.6}") double lowConfidence,
+            @Value("${voice.fluency.min-wpm:110}") int minWpm,
+            @Value("${voice.fluency.max-wpm:170}") int maxWpm) {
+
+        this.pauseSeconds = pauseMs / 1000.0;
+        this.mediumPauseSeconds = mediumPauseMs / 1000.0;
+        this.longPauseSeconds = longPauseMs / 1000.0;
+        this.lowConfidence = lowConfidence;
+        this.minWpm = minWpm;
+        this.maxWpm = maxWpm;
+    }
+
+    /**
+     * Empty if the transcript has no word timings.
+     */
+    public Optional<Fluency> analyze(Transcript transcript) {
+
+        List<Transcript.Word> words = transcript.words();
+        if (words.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int shortPauses = 0;
+        int mediumPauses = 0;
+        int longPauses = 0;
+        double longestPause = 0;
+        int fillers = 0;
+        double confidenceSum = 0;
+        int lowConfidenceWords = 0;
+
+        List<Span> spans = new ArrayList<>();
+        int spanStart = -1;
+
+        for (int i = 0; i < words.size(); i++) {
+
+            Transcript.Word word = words.get(i);
+
+            if (i > 0) {
+                double gap = word.start() - words.get(i - 1).end();
+                if (gap >= longPauseSeconds) {
+                    longPauses++;
+                } else if (gap >= mediumPauseSeconds) {
+                    mediumPauses++;
+                } else if (gap >= pauseSeconds) {
+                    shortPauses++;
+                }
+                longestPause = Math.max(longestPause, gap);
+            }
+
+            if (FILLERS.contains(word.text().toLowerCase(Locale.ROOT))) {
+                fillers++;
+            }
+
+            confidenceSum += word.confidence();
+
+            if (word.confidence() < lowConfidence) {
+                lowConfidenceWords++;
+                if (spanStart < 0) {
+                    spanStart = i;
+                }
+            } else if (spanStart >= 0) {
+                addSpan(spans, words, spanStart, i);
+                spanStart = -1;
+            }
+        }
+
+        if (spanStart >= 0) {
+            addSpan(spans, words, spanStart, words.size());
+        }
+
+        int count = words.size();
+        // leading and trailing silence is not the speaker's pace
+        double speaking = words.get(count - 1).end() - words.get(0).start();
+        double minutes = Math.max(speaking, 1.0) / 60;
+        int wpm = (int) Math.round(count / minutes);
+        double fillersPer100 = fillers * 100.0 / count;
+        double meanConfidence = confidenceSum / count;
+
+        double pacePenalty = wpm < minWpm
+                ? (minWpm - wpm) / 15.0
+                : wpm > maxWpm ? (wpm - maxWpm) / 15.0 : 0;
+
+        double fluency = 10
+                - Math.min(4, pacePenalty)
+                - Math.min(3, fillersPer100 * 0.5)
+                - Math.min(3, longPauses / minutes * 1.5);
+
+        double clarity = 10 * clamp((meanConfidence - 0.55) / 0.4)
+                - 5.0 * lowConfidenceWords / count;
+
+        return Optional.of(new Fluency(
+                score(fluency),
+                score(clarity),
+                wpm,
+                speaking,
+                shortPauses,
+                mediumPauses,
+                longPauses,
+                longestPause,
+                fillers,
+                fillersPer100,
+                meanConfidence,
+                spans));
+    }
+
+    private static void addSpan(List<Span> spans, List<Transcript.Word> words, int from, int to) {
+
+        if (spans.size() == MAX_SPANS) {
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                text.append(' ');
+            }
+            text.append(words.get(i).text());
+        }
+
+        spans.add(new Span(round2(words.get(from).start()), round2(words.get(to - 1).end()), text.toString()));
+    }
+
+    private static int score(double value) {
+        return (int) Math.round(Math.max(0, Math.min(10, value)));
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.pranav.interviewai.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsUpload;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.gridfs.GridFsCriteria.whereFilename;
+
+/**
+ * Recordings in GridFS, so every node can serve every recording. The ID is
+ * the GridFS filename; files are written and read in chunks of
+ * {@code audio.gridfs.chunk-bytes}, and a read from an offset starts at the
+ * chunk holding it rather than at the beginning.
+ */
+@Service
+@ConditionalOnProperty(name = "audio.store", havingValue = "gridfs")
+public class GridFsAudioStore implements AudioStore {
+
+    private final GridFsTemplate gridFs;
+    private final int chunkBytes;
+
+    public GridFsAudioStore(
+            GridFsTemplate gridFs,
+            @Value("${audio.gridfs.chunk-bytes:261120}") int chunkBytes) {
+
+        this.gridFs = gridFs;
+        this.chunkBytes = chunkBytes;
+    }
+
+    @Override
+    public boolean save(String id, Path source, String contentType) throws IOException {
+
+        if (file(id) != null) {
+            return false;
+        }
+
+        // two nodes storing the same new recording at once may both write
+        // it; the copies are identical and reads take the oldest
+        try (InputStream in = Files.newInputStream(source)) {
+            gridFs.store(GridFsUpload.fromStream(in)
+                    .filename(id)
+                    .contentType(contentType)
+                    .chunkSize(chunkBytes)
+                    .build());
+        }
+
+        return true;
+    }
+
+    @Override
+    public Optional<AudioObject> find(String id) {
+
+        GridFSFile file = file(id);
+        if (file == null) {
+            return Optional.empty();
+        }
+
+        String contentType = gridFs.getResource(file).getContentType();
+        return Optional.of(new AudioObject(
+                id,
+                file.getLength(),
+                contentType != null ? contentType : AudioStore.contentType(id),
+                file.getUploadDate().toInstant()));
+    }
+
+    @Override
+    public InputStream open(String id, long offset) throws IOException {
+
+        GridFSFile file = file(id);
+        if (file == null) {
+            throw new IOException("No stored audio " + id);
+        }
+
+        GridFsResource resource = gridFs.getResource(file);
+        InputStream in = resource.getInputStream();
+
+        long remaining = offset;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                in.close();
+                throw new IOException("Offset " + offset + " is past the end of " + id);
+            }
+            remaining -= skipped;
+        }
+
+        return in;
+    }
+
+    @Override
+    public boolean delete(String id) {
+        if (file(id) == null) {
+            return false;
+        }
+        gridFs.delete(new Query(whereFilename().is(id)));
+        return true;
+    }
+
+    private GridFSFile file(String id) {
+        return gridFs.find(new Query(whereFilename().is(id)).with(Sort.by("uploadDate")))
+                .first();
+    }
+}
@@ -1,231 +1,144 @@
 package com.pranav.interviewai.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import okhttp3.*;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.beans.factory.annotation.Value;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @Service
+@RequiredArgsConstructor
 public class GroqService {
 
-    @Value("${groq.api.key}")
-    private String apiKey;
-    private final OkHttpClient client = new OkHttpClient();
-    private final ObjectMapper mapper = new ObjectMapper();
-
-    public String generateQuestion(String topic, String difficulty) {
-
-        try {
-            String prompt =
-            "Generate ONE technical interview question for the topic: "
-            + topic +
-            ". Difficulty level: " + difficulty +
-            ". Do NOT include answers. Only give the question.";
-
-            Map<String, Object> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content", prompt);
-
-            Map<String, Object> requestMap = new HashMap<>();
-            requestMap.put("model", "llama-3.1-8b-instant");
-            requestMap.put("messages", new Object[]{message});
-
-            String json = mapper.writeValueAsString(requestMap);
-
-            RequestBody body = RequestBody.create(
-                    json,
-                    MediaType.get("application/json")
-            );
-
-            Request request = new Request.Builder()
-                    .url("https://api.groq.com/openai/v1/chat/completions")
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .addHeader("Content-Type", "application/json")
-                    .post(body)
-                    .build();
-
-            Response response = client.newCall(request).execute();
-
-            if (!response.isSuccessful()) {
-                return "Groq API Error: " + response.body().string();
-            }
-
-            JsonNode root = mapper.readTree(response.body().string());
-
-            String question =
-                    root.path("choices")
-                        .get(0)
-                        .path("message")
-                        .path("content")
-                        .asText();
-
-            return question;
-
-        } catch (IOException e) {
-            e.printStackTrace();
-            return "ERROR: " + e.getMessage();
-        }
-    }
-
-    public String evaluateAnswer(String question, String answer) {
-    try {
-        String prompt =
+    private static final String EVALUATION_PROMPT =
         "Evaluate the interview answer.\n"
-      + "Question: " + question + "\n"
-      + "Answer: " + answer + "\n\n"
+      + "Question: %s\n"
+      + "Answer: %s\n\n"
       + "Return ONLY valid JSON with no explanation:\n"
       + "{ \"score\": number(1-10), \"feedback\": \"text\" }";
 
-        Map<String, Object> message = new HashMap<>();
-        message.put("role", "user");
-        message.put("content", prompt);
-
-        Map<String, Object> requestMap = new HashMap<>();
-        requestMap.put("model", "llama-3.1-8b-instant");
-        requestMap.put("messages", new Object[]{message});
-
-        String json = mapper.writeValueAsString(requestMap);
+    // fluency and clarity come from FluencyAnalyzer, which sees word timings
+    private static final String VOICE_EVALUATION_PROMPT =
+        "You are an AI technical interview evaluator.\n\n" +
+        "Question:\n%s\n\n" +
+        "Spoken Answer Transcript:\n%s\n\n" +
+        "Score 0-10 for relevance and correctness (contentScore, 0 if unrelated), " +
+        "use of the expected technical keywords (keywordScore) and grammar (grammarScore). " +
+        "Ignore delivery.\n" +
+        "Return ONLY valid JSON. No explanation. No markdown.\n" +
+        "{\"contentScore\": number, \"keywordScore\": number, \"grammarScore\": number, \"feedback\": \"text\"}";
 
-        RequestBody body =
-                RequestBody.create(json, MediaType.get("application/json"));
+    // memo keys include these, so any template edit invalidates old evaluations
+    private static final String EVALUATION_PROMPT_VERSION =
+            ContentHash.of(EVALUATION_PROMPT.getBytes(StandardCharsets.UTF_8));
+    private static final String VOICE_EVALUATION_PROMPT_VERSION =
+            ContentHash.of(VOICE_EVALUATION_PROMPT.getBytes(StandardCharsets.UTF_8));
 
-        Request request = new Request.Builder()
-                .url("https://api.groq.com/openai/v1/chat/completions")
-                .addHeader("Authorization", "Bearer " + apiKey)
-                .addHeader("Content-Type", "application/json")
-                .post(body)
-                .build();
+    private final LlmClient llm;
+    private final ModelAnswerCache modelAnswerCache;
+    private final EvaluationMemo evaluationMemo;
 
-        Response response = client.newCall(request).execute();
-        JsonNode root = mapper.readTree(response.body().string());
+    public CompletableFuture<String> generateQuestion(String topic, String difficulty) {
+        return generateQuestion(topic, difficulty, LlmPriority.INTERACTIVE);
+    }
 
-        return root.path("choices")
-                .get(0)
-                .path("message")
-                .path("content")
-                .asText();
+    public CompletableFuture<String> generateQuestion(
+            String topic,
+            String difficulty,
+            LlmPriority priority) {
 
-    } catch (Exception e) {
-        e.printStackTrace();
-        return "Evaluation Error";
+        return llm.complete(LlmOperation.QUESTION, priority, questionPrompt(topic, difficulty));
     }
-}
-public String evaluateVoiceAnswer(String question, String transcript) {
 
-    try {
+    public CompletableFuture<String> streamQuestion(
+            String topic,
+            String difficulty,
+            Consumer<String> onToken) {
 
-        String prompt =
-        "You are an AI technical interview evaluator.\n\n" +
-        "Question:\n" + question + "\n\n" +
-        "Spoken Answer Transcript:\n" + transcript + "\n\n" +
-        "IMPORTANT RULES:\n" +
-        "- Evaluate relevance to question.\n" +
-        "- Evaluate grammar.\n" +
-        "- Evaluate fluency.\n" +
-        "- Evaluate keyword usage.\n" +
-        "- Evaluate clarity.\n" +
-        "- If answer is unrelated, contentScore must be 0.\n\n" +
-        "Return ONLY valid JSON. No explanation. No markdown.\n" +
-        "{\n" +
-        "  \"contentScore\": number,\n" +
-        "  \"grammarScore\": number,\n" +
-        "  \"fluencyScore\": number,\n" +
-        "  \"keywordScore\": number,\n" +
-        "  \"clarityScore\": number,\n" +
-        "  \"overallScore\": number,\n" +
-        "  \"feedback\": \"text\"\n" +
-        "}";
+        return llm.stream(LlmOperation.QUESTION, questionPrompt(topic, difficulty), onToken);
+    }
 
-        Map<String, Object> message = new HashMap<>();
-        message.put("role", "user");
-        message.put("content", prompt);
+    private String questionPrompt(String topic, String difficulty) {
+        return
+        "Generate ONE technical interview question for the topic: "
+        + topic +
+        ". Difficulty level: " + difficulty +
+        ". Do NOT include answers. Only give the question.";
+    }
 
-        Map<String, Object> requestMap = new HashMap<>();
-        requestMap.put("model", "llama-3.1-8b-instant");
-        requestMap.put("messages", new Object[]{message});
+    public CompletableFuture<String> evaluateAnswer(String question, String answer) {
 
-        String json = mapper.writeValueAsString(requestMap);
+        String key = EvaluationMemo.key(EVALUATION_PROMPT_VERSION, question, answer);
 
-        RequestBody body = RequestBody.create(json, MediaType.get("application/json"));
-        
-        Request request = new Request.Builder()
-                .url("https://api.groq.com/openai/v1/chat/completions")
-                .addHeader("Authorization", "Bearer " + apiKey)
-                .addHeader("Content-Type", "application/json")
-                .post(body)
-                .build();
+        return evaluationMemo.get(key, () -> llm.complete(
+                        LlmOperation.EVALUATION,
+                        String.format(EVALUATION_PROMPT, question, answer)));
+    }
 
-        Response response = client.newCall(request).execute();
+    public CompletableFuture<String> evaluateVoiceAnswer(String question, String transcript) {
 
-        JsonNode root = mapper.readTree(response.body().string());
+        String key = EvaluationMemo.key(VOICE_EVALUATION_PROMPT_VERSION, question, transcript);
 
-        return root.path("choices")
-                .get(0)
-                .path("message")
-                .path("content")
-                .asText();
+        return evaluationMemo.get(key, () -> llm.complete(
+                        LlmOperation.VOICE_EVALUATION,
+                        String.format(VOICE_EVALUATION_PROMPT, question, transcript)));
+    }
 
-    } catch (Exception e) {
-        e.printStackTrace();
-        return "Voice Evaluation Error";
+    public CompletableFuture<String> extractSkills(String text) {
+        return extractSkills(text, LlmPriority.INTERACTIVE);
     }
-}
-public String extractSkills(String text) {
 
-    try {
+    public CompletableFuture<String> extractSkills(String text, LlmPriority priority) {
 
         String prompt =
-    "Extract only technical skills from the text below.\n" +
-    "Return ONLY valid raw JSON. Do not include explanations.\n" +
-    "Format strictly as:\n" +
-    "{\"skills\": [\"skill1\", \"skill2\"]}\n\n" +
-    text;
+        "Extract only technical skills from the text below.\n" +
+        "Return ONLY valid raw JSON. Do not include explanations.\n" +
+        "Format strictly as:\n" +
+        "{\"skills\": [\"skill1\", \"skill2\"]}\n\n" +
+        text;
 
-        Map<String, Object> message = new HashMap<>();
-        message.put("role", "user");
-        message.put("content", prompt);
-
-        Map<String, Object> requestMap = new HashMap<>();
-        requestMap.put("model", "llama-3.1-8b-instant");
-        requestMap.put("messages", new Object[]{message});
+        return llm.complete(LlmOperation.SKILLS, priority, prompt);
+    }
 
-        String json = mapper.writeValueAsString(requestMap);
+    public CompletableFuture<String> generateModelAnswer(String question) {
+        return generateModelAnswer(question, LlmPriority.INTERACTIVE);
+    }
 
-        RequestBody body =
-                RequestBody.create(json, MediaType.get("application/json"));
+    public CompletableFuture<String> generateModelAnswer(String question, LlmPriority priority) {
 
-        Request request = new Request.Builder()
-                .url("https://api.groq.com/openai/v1/chat/completions")
-                .addHeader("Authorization", "Bearer " + apiKey)
-                .addHeader("Content-Type", "application/json")
-                .post(body)
-                .build();
+        Optional<String> cached = modelAnswerCache.get(question);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
 
-        Response response = client.newCall(request).execute();
+        return llm.complete(LlmOperation.MODEL_ANSWER, priority, modelAnswerPrompt(question))
+                .thenApply(answer -> {
+                    modelAnswerCache.put(question, answer);
+                    return answer;
+                });
+    }
 
-        JsonNode root = mapper.readTree(response.body().string());
+    public CompletableFuture<String> streamModelAnswer(
+            String question,
+            Consumer<String> onToken) {
 
-        return root.path("choices")
-                .get(0)
-                .path("message")
-                .path("content")
-                .asText();
+        Optional<String> cached = modelAnswerCache.get(question);
+        if (cached.isPresent()) {
+            onToken.accept(cached.get());
+            return CompletableFuture.completedFuture(cached.get());
+        }
 
-    } catch (Exception e) {
-        e.printStackTrace();
-        return "{\"skills\":[]}";
+        return llm.stream(LlmOperation.MODEL_ANSWER, modelAnswerPrompt(question), onToken)
+                .thenApply(answer -> {
+                    modelAnswerCache.put(question, answer);
+                    return answer;
+                });
     }
-}
-public String generateModelAnswer(String question) {
-
-    try {
 
-        String prompt =
+    private String modelAnswerPrompt(String question) {
+        return
         "You are a senior technical interviewer.\n\n" +
         "Provide a high-quality, structured, ideal answer for the following interview question.\n\n" +
         "The answer must:\n" +
@@ -236,40 +149,5 @@ public String generateModelAnswer(String question) {
         "- Be concise but complete\n\n" +
         "Question:\n" + question + "\n\n" +
         "Return only the answer. No extra explanation.";
-
-        Map<String, Object> message = new HashMap<>();
-        message.put("role", "user");
-        message.put("content", prompt);
-
-        Map<String, Object> requestMap = new HashMap<>();
-        requestMap.put("model", "llama-3.1-8b-instant");
-        requestMap.put("messages", new Object[]{message});
-
-        String json = mapper.writeValueAsString(requestMap);
-
-        RequestBody body =
-                RequestBody.create(json, MediaType.get("application/json"));
-
-        Request request = new Request.Builder()
-                .url("https://api.groq.com/openai/v1/chat/completions")
-                .addHeader("Authorization", "Bearer " + apiKey)
-                .addHeader("Content-Type", "application/json")
-                .post(body)
-                .build();
-
-        Response response = client.newCall(request).execute();
-
-        JsonNode root = mapper.readTree(response.body().string());
-
-        return root.path("choices")
-                .get(0)
-                .path("message")
-                .path("content")
-                .asText();
-
-    } catch (Exception e) {
-        e.printStackTrace();
-        return "Model Answer Generation Error";
     }
 }
-}
\ No newline at end of file
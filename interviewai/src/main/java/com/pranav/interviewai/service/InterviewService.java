@@ -6,6 +6,7 @@ import com.pranav.interviewai.entity.Session;
 import com.pranav.interviewai.entity.Answer;
 import com.pranav.interviewai.entity.Question;
 import com.pranav.interviewai.entity.InterviewAttempt;
+import com.pranav.interviewai.exception.LlmTimeoutException;
 import com.pranav.interviewai.repository.SessionRepository;
 import com.pranav.interviewai.repository.AnswerRepository;
 import com.pranav.interviewai.repository.QuestionRepository;
@@ -14,11 +15,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -29,37 +35,140 @@ public class InterviewService {
     private final AnswerRepository answerRepo;
     private final GroqService ai;
     private final InterviewAttemptRepository attemptRepository;
-    public Map<String, String> start(StartInterviewRequest req, String userId) {
+    private final QuestionPoolService questionPool;
 
-        Session s = new Session();
-        s.setTopic(req.getTopic());
-        s.setDifficulty(req.getDifficulty());
-        s.setStartTime(LocalDateTime.now());
-        s.setUserId(userId);   
+    @Value("${interview.answer-deadline-ms:25000}")
+    private long answerDeadlineMs;
+
+    public CompletableFuture<Map<String, String>> start(StartInterviewRequest req, String userId) {
+
+        Session s = newSession(req, userId);
+
+        Optional<Question> pooled =
+                questionPool.claim(req.getTopic(), req.getDifficulty(), userId, s.getId());
+        if (pooled.isPresent()) {
+            return CompletableFuture.completedFuture(startResponse(s, pooled.get()));
+        }
+
+        return ai.generateQuestion(req.getTopic(), req.getDifficulty())
+                .thenCompose(questionText -> ai.generateModelAnswer(questionText)
+                        // a missing model answer is filled in when the answer is submitted
+                        .exceptionally(e -> null)
+                        .thenApply(modelAnswer -> {
+
+                            Question q = newQuestion(s, req, userId, questionText);
+                            q.setModelAnswer(modelAnswer);
+
+                            questionRepo.save(q);
+
+                            return startResponse(s, q);
+                        }));
+    }
 
-        sessionRepo.save(s);
+    /**
+     * Streaming variant of {@link #start}: question tokens are handed to
+     * {@code onToken} as Groq produces them, and the question is saved once
+     * the stream completes. The model answer is generated afterwards and
+     * written onto the question in the background.
+     */
+    public CompletableFuture<Map<String, String>> startStreaming(
+            StartInterviewRequest req,
+            String userId,
+            Consumer<String> onToken) {
 
-        String questionText =
-                ai.generateQuestion(req.getTopic(), req.getDifficulty());
+        Session s = newSession(req, userId);
 
-        String modelAnswer =
-                ai.generateModelAnswer(questionText);
+        Optional<Question> pooled =
+                questionPool.claim(req.getTopic(), req.getDifficulty(), userId, s.getId());
+        if (pooled.isPresent()) {
+            onToken.accept(pooled.get().getQuestionText());
+            return CompletableFuture.completedFuture(startResponse(s, pooled.get()));
+        }
+
+        return ai.streamQuestion(req.getTopic(), req.getDifficulty(), onToken)
+                .thenApply(questionText -> {
+
+                    Question q = newQuestion(s, req, userId, questionText);
+
+                    questionRepo.save(q);
+
+                    // nobody waits on this one; submitAnswer generates it if it was shed
+                    ai.generateModelAnswer(questionText, LlmPriority.BACKGROUND)
+                            .whenComplete((modelAnswer, error) -> {
+                                if (error == null) {
+                                    q.setModelAnswer(modelAnswer);
+                                    questionRepo.save(q);
+                                }
+                            });
+
+                    return startResponse(s, q);
+                });
+    }
+
+    public CompletableFuture<String> streamModelAnswer(
+            String questionId,
+            String userId,
+            Consumer<String> onToken) {
+
+        Question q = questionRepo.findById(questionId).orElseThrow();
+        Session session = sessionRepo.findById(q.getSessionId()).orElseThrow();
+
+        if (!session.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized session access");
+        }
+
+        if (q.getModelAnswer() != null) {
+            onToken.accept(q.getModelAnswer());
+            return CompletableFuture.completedFuture(q.getModelAnswer());
+        }
+
+        return ai.streamModelAnswer(q.getQuestionText(), onToken)
+                .thenApply(modelAnswer -> {
+                    q.setModelAnswer(modelAnswer);
+                    questionRepo.save(q);
+                    return modelAnswer;
+                });
+    }
+
+    private Question newQuestion(
+            Session s,
+            StartInterviewRequest req,
+            String userId,
+            String questionText) {
 
         Question q = new Question();
         q.setSessionId(s.getId());
+        q.setTopic(req.getTopic());
+        q.setDifficulty(req.getDifficulty());
         q.setQuestionText(questionText);
-        q.setModelAnswer(modelAnswer);
+        q.setUserId(userId);
+        q.setContentHash(ContentHash.of(questionText));
 
-        questionRepo.save(q);
+        return q;
+    }
+
+    private Map<String, String> startResponse(Session s, Question q) {
 
         Map<String, String> response = new HashMap<>();
         response.put("sessionId", s.getId());
         response.put("questionId", q.getId());
-        response.put("question", questionText);
+        response.put("question", q.getQuestionText());
 
         return response;
     }
-    public Map<String, Object> submitAnswer(
+
+    private Session newSession(StartInterviewRequest req, String userId) {
+
+        Session s = new Session();
+        s.setTopic(req.getTopic());
+        s.setDifficulty(req.getDifficulty());
+        s.setStartTime(LocalDateTime.now());
+        s.setUserId(userId);
+
+        return sessionRepo.save(s);
+    }
+
+    public CompletableFuture<Map<String, Object>> submitAnswer(
             SubmitAnswerRequest req,
             String userId) {
 
@@ -69,27 +178,49 @@ public class InterviewService {
         Session session =
                 sessionRepo.findById(q.getSessionId()).orElseThrow();
 
-        String evaluation =
-                ai.evaluateAnswer(q.getQuestionText(), req.getAnswer());
+        if (!session.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized session access");
+        }
+
+        // evaluation and model answer are independent: run both at once and
+        // give up on whichever misses the shared deadline
+        CompletableFuture<String> evaluation =
+                ai.evaluateAnswer(q.getQuestionText(), req.getAnswer())
+                        .completeOnTimeout(null, answerDeadlineMs, TimeUnit.MILLISECONDS)
+                        .exceptionally(LlmTimeoutException::orNull);
+
+        CompletableFuture<String> modelAnswer = q.getModelAnswer() != null
+                ? CompletableFuture.completedFuture(q.getModelAnswer())
+                : ai.generateModelAnswer(q.getQuestionText())
+                        .completeOnTimeout(null, answerDeadlineMs, TimeUnit.MILLISECONDS)
+                        .exceptionally(e -> null);
 
-        String modelAnswer =
-                ai.generateModelAnswer(q.getQuestionText());
+        return evaluation.thenCombine(modelAnswer, (evaluated, answer) ->
+                saveAnswer(req, userId, q, session, evaluated, answer));
+    }
+
+    private Map<String, Object> saveAnswer(
+            SubmitAnswerRequest req,
+            String userId,
+            Question q,
+            Session session,
+            String evaluation,
+            String modelAnswer) {
 
         int score = 0;
-        String feedback = "Parsing failed";
-        if (!session.getUserId().equals(userId)) {
-    throw new RuntimeException("Unauthorized session access");
-}
+        String feedback = evaluation == null ? "Evaluation timed out" : "Parsing failed";
 
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode node = mapper.readTree(evaluation);
+        if (evaluation != null) {
+            try {
+                ObjectMapper mapper = new ObjectMapper();
+                JsonNode node = mapper.readTree(evaluation);
 
-            score = node.get("score").asInt();
-            feedback = node.get("feedback").asText();
+                score = node.get("score").asInt();
+                feedback = node.get("feedback").asText();
 
-        } catch (Exception e) {
-            e.printStackTrace();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
         }
         Answer a = new Answer();
         a.setQuestionId(req.getQuestionId());
@@ -121,7 +252,8 @@ public class InterviewService {
         Map<String, Object> response = new HashMap<>();
         response.put("score", score);
         response.put("feedback", feedback);
+        response.put("partial", evaluation == null || modelAnswer == null);
 
         return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.pranav.interviewai.service;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent successful call latencies, used to decide when
+ * a request has been slow enough to be worth hedging.
+ */
+public class LatencyTracker {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int window) {
+        this.samples = new long[window];
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /** p95 of the window in millis, or -1 until there are enough samples. */
+    public synchronized long p95() {
+
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        return sorted[(int) Math.ceil(count * 0.95) - 1];
+    }
+}
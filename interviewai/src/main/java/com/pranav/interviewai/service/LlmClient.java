@@ -0,0 +1,645 @@
+package com.pranav.interviewai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pranav.interviewai.exception.LlmException;
+import com.pranav.interviewai.exception.LlmResponseException;
+import com.pranav.interviewai.exception.LlmTimeoutException;
+import com.pranav.interviewai.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import okhttp3.*;
+import okio.BufferedSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Shared, non-blocking client for Groq chat completions.
+ *
+ * All calls go through one OkHttp client so they share a connection pool,
+ * HTTP/2 multiplexing and a dispatcher that caps the number of requests
+ * in flight. Results come back as futures so callers never park a servlet
+ * thread on the round trip. Identical concurrent requests are coalesced.
+ *
+ * Each operation has its own bulkhead and deadline. Within the deadline,
+ * failed attempts are retried with full-jitter exponential backoff, and an
+ * attempt still running after the operation's recent p95 gets a hedged
+ * duplicate. A circuit breaker stops calls while Groq keeps failing.
+ * Failures surface as {@link LlmException} subtypes.
+ */
+@Component
+public class LlmClient {
+
+    private static final String COMPLETIONS_URL =
+            "https://api.groq.com/openai/v1/chat/completions";
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final String apiKey;
+    private final String model;
+    private final OkHttpClient client;
+    private final CircuitBreaker circuitBreaker;
+    private final LlmScheduler scheduler;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final boolean hedgingEnabled;
+
+    private final Map<LlmOperation, Long> deadlines = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, Semaphore> bulkheads = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, LatencyTracker> latencies = new EnumMap<>(LlmOperation.class);
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<LlmOperation, Counter> requests = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, Counter> coalesced = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, Counter> retries = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, Counter> hedges = new EnumMap<>(LlmOperation.class);
+    private final Map<LlmOperation, Counter> rejected = new EnumMap<>(LlmOperation.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public LlmClient(
+            @Value("${groq.api.key}") String apiKey,
+            @Value("${groq.model:llama-3.1-8b-instant}") String model,
+            @Value("${groq.max-in-flight:32}") int maxInFlight,
+            @Value("${groq.pool.max-idle:8}") int maxIdleConnections,
+            @Value("${groq.pool.keep-alive-seconds:300}") long keepAliveSeconds,
+            @Value("${groq.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${groq.retry.max-attempts:3}") int maxAttempts,
+            @Value("${groq.retry.backoff-base-ms:200}") long backoffBaseMs,
+            @Value("${groq.retry.backoff-max-ms:2000}") long backoffMaxMs,
+            @Value("${groq.hedging.enabled:true}") boolean hedgingEnabled,
+            @Value("${groq.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${groq.circuit-breaker.open-ms:10000}") long openMs,
+            LlmScheduler scheduler,
+            Environment env,
+            MeterRegistry registry) {
+
+        this.apiKey = apiKey;
+        this.model = model;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.hedgingEnabled = hedgingEnabled;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        this.scheduler = scheduler;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxInFlight);
+        dispatcher.setMaxRequestsPerHost(maxInFlight);
+
+        this.client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(
+                        maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                // the per-call deadline below bounds the whole exchange
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .build();
+
+        for (LlmOperation op : LlmOperation.values()) {
+            deadlines.put(op, env.getProperty(
+                    "groq.deadline." + op.getKey() + "-ms",
+                    Long.class,
+                    op.getDefaultDeadlineMs()));
+            bulkheads.put(op, new Semaphore(env.getProperty(
+                    "groq.bulkhead." + op.getKey(),
+                    Integer.class,
+                    16)));
+            latencies.put(op, new LatencyTracker(200));
+
+            requests.put(op, counter(registry, "llm.requests", op));
+            coalesced.put(op, counter(registry, "llm.requests.coalesced", op));
+            retries.put(op, counter(registry, "llm.requests.retried", op));
+            hedges.put(op, counter(registry, "llm.requests.hedged", op));
+            rejected.put(op, counter(registry, "llm.requests.rejected", op));
+        }
+
+        Gauge.builder("llm.requests.in.flight", inFlight, Map::size)
+                .register(registry);
+        Gauge.builder("llm.circuit.state", circuitBreaker, b -> b.getState().ordinal())
+                .register(registry);
+    }
+
+    /**
+     * Concurrent calls with the same operation and prompt share one
+     * in-flight request; every caller gets its own copy of the result so a
+     * caller-side timeout cannot complete the shared future for the others.
+     */
+    public CompletableFuture<String> complete(LlmOperation op, String prompt) {
+        return complete(op, LlmPriority.INTERACTIVE, prompt);
+    }
+
+    public CompletableFuture<String> complete(LlmOperation op, LlmPriority priority, String prompt) {
+
+        requests.get(op).increment();
+
+        // per priority, so an interactive caller never waits in the background queue
+        String key = priority.name() + ":" + op.name() + ":"
+                + ContentHash.of(prompt.getBytes(StandardCharsets.UTF_8));
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            coalesced.get(op).increment();
+            return existing.copy();
+        }
+
+        execute(op, priority, prompt).whenComplete((result, error) -> {
+            inFlight.remove(key, created);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(result);
+            }
+        });
+
+        return created.copy();
+    }
+
+    /**
+     * Streams the completion ({@code stream: true}), handing each content
+     * delta to {@code onToken} as it arrives. The returned future completes
+     * with the full text once Groq sends {@code [DONE]}. If {@code onToken}
+     * throws (typically because the browser went away) the call is cancelled.
+     * Streams are not retried or hedged, since tokens may already be out,
+     * and are always scheduled as interactive.
+     */
+    public CompletableFuture<String> stream(
+            LlmOperation op,
+            String prompt,
+            Consumer<String> onToken) {
+
+        requests.get(op).increment();
+
+        Semaphore bulkhead = bulkheads.get(op);
+        if (!bulkhead.tryAcquire()) {
+            rejected.get(op).increment();
+            return CompletableFuture.failedFuture(new LlmUnavailableException(
+                    op.getKey(), "Too many concurrent " + op.getKey() + " requests", false, null));
+        }
+
+        if (!circuitBreaker.allowRequest()) {
+            bulkhead.release();
+            rejected.get(op).increment();
+            return CompletableFuture.failedFuture(circuitOpen(op));
+        }
+
+        long deadlineMs = deadlines.get(op);
+
+        CompletableFuture<Void> permit = scheduler.acquire(LlmPriority.INTERACTIVE, op);
+        AtomicReference<Call> active = new AtomicReference<>();
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        permit.whenComplete((granted, error) -> {
+
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            if (future.isDone()) {
+                return;
+            }
+
+            Call call = client.newCall(buildRequest(prompt, true));
+            call.timeout().timeout(deadlineMs, TimeUnit.MILLISECONDS);
+            active.set(call);
+
+            call.enqueue(new Callback() {
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    future.completeExceptionally(networkFailure(op, e));
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (response) {
+
+                        if (!response.isSuccessful()) {
+                            throw errorStatus(op, response.code(), response.body().string());
+                        }
+
+                        BufferedSource source = response.body().source();
+                        StringBuilder text = new StringBuilder();
+
+                        String line;
+                        while ((line = source.readUtf8Line()) != null) {
+
+                            if (!line.startsWith("data:")) {
+                                continue;
+                            }
+
+                            String data = line.substring(5).trim();
+                            if ("[DONE]".equals(data)) {
+                                break;
+                            }
+
+                            String token = mapper.readTree(data)
+                                    .path("choices")
+                                    .path(0)
+                                    .path("delta")
+                                    .path("content")
+                                    .asText("");
+
+                            if (!token.isEmpty()) {
+                                text.append(token);
+                                onToken.accept(token);
+                            }
+                        }
+
+                        future.complete(text.toString());
+
+                    } catch (IOException e) {
+                        call.cancel();
+                        future.completeExceptionally(networkFailure(op, e));
+                    } catch (RuntimeException e) {
+                        call.cancel();
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        });
+
+        return future.orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    bulkhead.release();
+                    permit.cancel(false);
+                    if (error == null) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        Call call = active.get();
+                        if (call != null) {
+                            call.cancel();
+                        }
+                        recordOutcome(translate(op, error));
+                    }
+                })
+                .exceptionally(error -> {
+                    throw new CompletionException(translate(op, error));
+                });
+    }
+
+    private CompletableFuture<String> execute(LlmOperation op, LlmPriority priority, String prompt) {
+
+        Semaphore bulkhead = bulkheads.get(op);
+        if (!bulkhead.tryAcquire()) {
+            rejected.get(op).increment();
+            return CompletableFuture.failedFuture(new LlmUnavailableException(
+                    op.getKey(), "Too many concurrent " + op.getKey() + " requests", false, null));
+        }
+
+        long deadlineMs = deadlines.get(op);
+        long deadlineAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        attempt(op, priority, prompt, deadlineAt, 1, result);
+
+        return result.orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> bulkhead.release())
+                .exceptionally(error -> {
+                    throw new CompletionException(translate(op, error));
+                });
+    }
+
+    private void attempt(
+            LlmOperation op,
+            LlmPriority priority,
+            String prompt,
+            long deadlineAt,
+            int attemptNo,
+            CompletableFuture<String> result) {
+
+        if (result.isDone()) {
+            return;
+        }
+
+        if (!circuitBreaker.allowRequest()) {
+            rejected.get(op).increment();
+            result.completeExceptionally(circuitOpen(op));
+            return;
+        }
+
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineAt - System.nanoTime());
+        if (remainingMs <= 0) {
+            result.completeExceptionally(new LlmTimeoutException(
+                    op.getKey(), "Groq " + op.getKey() + " deadline exceeded"));
+            return;
+        }
+
+        CompletableFuture<String> current = hedged(op, priority, prompt, remainingMs);
+        result.whenComplete((value, error) -> current.cancel(true));
+
+        current.whenComplete((value, error) -> {
+
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                result.complete(value);
+                return;
+            }
+
+            LlmException failure = translate(op, error);
+            recordOutcome(failure);
+
+            if (result.isDone()) {
+                return;
+            }
+
+            long delayMs = backoff(attemptNo);
+            long leftMs = TimeUnit.NANOSECONDS.toMillis(deadlineAt - System.nanoTime());
+
+            if (!failure.isRetryable() || attemptNo >= maxAttempts || leftMs <= delayMs) {
+                result.completeExceptionally(failure);
+                return;
+            }
+
+            retries.get(op).increment();
+            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS)
+                    .execute(() -> attempt(op, priority, prompt, deadlineAt, attemptNo + 1, result));
+        });
+    }
+
+    /**
+     * Sends the request and, if it is still outstanding once the
+     * operation's recent p95 has passed, races a second copy against it.
+     * The first success wins and the other request is cancelled. Background
+     * calls are never hedged; the duplicate would only burn rate limit.
+     */
+    private CompletableFuture<String> hedged(
+            LlmOperation op,
+            LlmPriority priority,
+            String prompt,
+            long timeoutMs) {
+
+        CompletableFuture<String> primary = send(op, priority, prompt, timeoutMs);
+
+        long hedgeAfterMs = latencies.get(op).p95();
+        if (!hedgingEnabled
+                || priority == LlmPriority.BACKGROUND
+                || hedgeAfterMs <= 0
+                || hedgeAfterMs >= timeoutMs) {
+            return primary;
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+
+        BiConsumer<String, Throwable> settle = (value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+
+        primary.whenComplete(settle);
+        result.whenComplete((value, error) -> primary.cancel(true));
+
+        CompletableFuture.delayedExecutor(hedgeAfterMs, TimeUnit.MILLISECONDS).execute(() -> {
+
+            if (result.isDone()) {
+                return;
+            }
+
+            hedges.get(op).increment();
+            pending.incrementAndGet();
+
+            CompletableFuture<String> hedge = send(op, priority, prompt, timeoutMs - hedgeAfterMs);
+            hedge.whenComplete(settle);
+            result.whenComplete((value, error) -> hedge.cancel(true));
+        });
+
+        return result;
+    }
+
+    /**
+     * Waits for a permit from the scheduler, then sends with whatever is
+     * left of {@code timeoutMs}. Cancelling the returned future releases the
+     * queue slot or cancels the HTTP call.
+     */
+    private CompletableFuture<String> send(
+            LlmOperation op,
+            LlmPriority priority,
+            String prompt,
+            long timeoutMs) {
+
+        long queuedAt = System.nanoTime();
+        CompletableFuture<Void> permit = scheduler.acquire(priority, op);
+        CompletableFuture<String> result = new CompletableFuture<>();
+
+        permit.whenComplete((granted, error) -> {
+
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+
+            long leftMs = timeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+            if (leftMs <= 0) {
+                result.completeExceptionally(new LlmTimeoutException(
+                        op.getKey(), "Groq " + op.getKey() + " request timed out waiting for rate limit"));
+                return;
+            }
+
+            CompletableFuture<String> sent = dispatch(op, prompt, leftMs);
+            sent.whenComplete((value, failure) -> {
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(value);
+                }
+            });
+            result.whenComplete((value, failure) -> sent.cancel(true));
+        });
+
+        result.whenComplete((value, error) -> permit.cancel(false));
+
+        return result;
+    }
+
+    private CompletableFuture<String> dispatch(LlmOperation op, String prompt, long timeoutMs) {
+
+        Call call = client.newCall(buildRequest(prompt, false));
+        call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        call.enqueue(new Callback() {
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(networkFailure(op, e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    String body = response.body().string();
+
+                    if (!response.isSuccessful()) {
+                        throw errorStatus(op, response.code(), body);
+                    }
+
+                    String content = extractContent(op, body);
+                    latencies.get(op).record(
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                    future.complete(content);
+
+                } catch (IOException e) {
+                    future.completeExceptionally(networkFailure(op, e));
+                } catch (LlmException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        // cancelling the future (lost hedge, deadline) cancels the HTTP call
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                call.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    private long backoff(int attemptNo) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attemptNo - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private LlmException translate(LlmOperation op, Throwable error) {
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+
+        if (cause instanceof LlmException llm) {
+            return llm;
+        }
+
+        if (cause instanceof TimeoutException) {
+            return new LlmTimeoutException(op.getKey(), "Groq " + op.getKey() + " deadline exceeded");
+        }
+
+        return new LlmUnavailableException(op.getKey(), "Groq " + op.getKey() + " failed", false, cause);
+    }
+
+    // only upstream trouble trips the breaker; an error status we will not
+    // retry still proves Groq is answering
+    private void recordOutcome(LlmException failure) {
+        if (failure.isRetryable()) {
+            circuitBreaker.onFailure();
+        } else if (failure instanceof LlmResponseException) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.release();
+        }
+    }
+
+    private LlmException networkFailure(LlmOperation op, IOException e) {
+
+        if (e instanceof InterruptedIOException) {
+            return new LlmTimeoutException(op.getKey(), "Groq " + op.getKey() + " call timed out");
+        }
+
+        return new LlmUnavailableException(op.getKey(), "Groq " + op.getKey() + " unreachable", true, e);
+    }
+
+    private LlmException errorStatus(LlmOperation op, int code, String body) {
+        return new LlmResponseException(
+                op.getKey(),
+                code,
+                "Groq API Error: " + code + " " + body,
+                code == 429 || code >= 500,
+                null);
+    }
+
+    private LlmException circuitOpen(LlmOperation op) {
+        return new LlmUnavailableException(
+                op.getKey(), "Groq is unavailable (circuit open)", false, null);
+    }
+
+    private Request buildRequest(String prompt, boolean stream) {
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", "user");
+        message.put("content", prompt);
+
+        Map<String, Object> requestMap = new HashMap<>();
+        requestMap.put("model", model);
+        requestMap.put("messages", new Object[]{message});
+        if (stream) {
+            requestMap.put("stream", true);
+        }
+
+        String json;
+        try {
+            json = mapper.writeValueAsString(requestMap);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not serialize Groq request", e);
+        }
+
+        return new Request.Builder()
+                .url(COMPLETIONS_URL)
+                .addHeader("Authorization", "Bearer " + apiKey)
+                .post(RequestBody.create(json, JSON))
+                .build();
+    }
+
+    private String extractContent(LlmOperation op, String body) {
+
+        JsonNode content;
+        try {
+            content = mapper.readTree(body)
+                    .path("choices")
+                    .path(0)
+                    .path("message")
+                    .path("content");
+        } catch (IOException e) {
+            throw new LlmResponseException(op.getKey(), 200, "Malformed Groq response", false, e);
+        }
+
+        if (!content.isTextual()) {
+            throw new LlmResponseException(op.getKey(), 200, "Groq response had no content", false, null);
+        }
+
+        return content.asText();
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, LlmOperation op) {
+        return Counter.builder(name)
+                .tag("operation", op.getKey())
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+}
@@ -0,0 +1,30 @@
+package com.pranav.interviewai.service;
+
+/**
+ * The kinds of completion we ask Groq for. Each one carries its own
+ * default deadline, overridable with {@code groq.deadline.<key>-ms}.
+ */
+public enum LlmOperation {
+
+    QUESTION("question", 15_000),
+    EVALUATION("evaluation", 20_000),
+    VOICE_EVALUATION("voice-evaluation", 25_000),
+    SKILLS("skills", 20_000),
+    MODEL_ANSWER("model-answer", 30_000);
+
+    private final String key;
+    private final long defaultDeadlineMs;
+
+    LlmOperation(String key, long defaultDeadlineMs) {
+        this.key = key;
+        this.defaultDeadlineMs = defaultDeadlineMs;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getDefaultDeadlineMs() {
+        return defaultDeadlineMs;
+    }
+}
@@ -0,0 +1,22 @@
+package com.pranav.interviewai.service;
+
+/**
+ * Scheduling class of an LLM call. Someone is waiting on an
+ * {@code INTERACTIVE} call; {@code BACKGROUND} work (pool refills, library
+ * backfill) only gets what is left of the rate limit and is shed first.
+ */
+public enum LlmPriority {
+
+    INTERACTIVE("interactive"),
+    BACKGROUND("background");
+
+    private final String key;
+
+    LlmPriority(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,244 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for outbound Groq requests.
+ *
+ * A token bucket sized to the provider quota hands out one permit per
+ * HTTP request. Interactive requests are always served first. Background
+ * requests never take the last {@code background-reserve} tokens, are
+ * refused while interactive work is queued, and are dropped if they wait
+ * too long, so a burst of user traffic sheds background work instead of
+ * queueing behind it.
+ */
+@Component
+public class LlmScheduler {
+
+    private record Ticket(
+            LlmPriority priority,
+            LlmOperation op,
+            CompletableFuture<Void> permit,
+            long enqueuedAt) {}
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final int backgroundReserve;
+    private final long backgroundMaxWaitNanos;
+
+    private final Map<LlmPriority, Deque<Ticket>> queues = new EnumMap<>(LlmPriority.class);
+    private final Map<LlmPriority, Integer> maxQueued = new EnumMap<>(LlmPriority.class);
+    private final Map<LlmPriority, Timer> waitTimers = new EnumMap<>(LlmPriority.class);
+    private final Map<LlmPriority, Counter> shed = new EnumMap<>(LlmPriority.class);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "llm-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+    private long nextDrainAt = Long.MAX_VALUE;
+
+    public LlmScheduler(
+            @Value("${groq.rate-limit.requests-per-minute:30}") int requestsPerMinute,
+            @Value("${groq.rate-limit.burst:10}") int burst,
+            @Value("${groq.scheduler.background-reserve:3}") int backgroundReserve,
+            @Value("${groq.scheduler.background-max-wait-ms:60000}") long backgroundMaxWaitMs,
+            @Value("${groq.scheduler.max-queued.interactive:200}") int maxInteractive,
+            @Value("${groq.scheduler.max-queued.background:50}") int maxBackground,
+            MeterRegistry registry) {
+
+        this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.backgroundReserve = Math.max(0, Math.min(backgroundReserve, burst - 1));
+        this.backgroundMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(backgroundMaxWaitMs);
+        this.tokens = capacity;
+
+        maxQueued.put(LlmPriority.INTERACTIVE, maxInteractive);
+        maxQueued.put(LlmPriority.BACKGROUND, maxBackground);
+
+        for (LlmPriority priority : LlmPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+
+            Gauge.builder("llm.scheduler.queue.depth", this, s -> s.depth(priority))
+                    .tag("priority", priority.getKey())
+                    .register(registry);
+            waitTimers.put(priority, Timer.builder("llm.scheduler.wait")
+                    .tag("priority", priority.getKey())
+                    .register(registry));
+            shed.put(priority, Counter.builder("llm.scheduler.shed")
+                    .tag("priority", priority.getKey())
+                    .register(registry));
+        }
+
+        Gauge.builder("llm.scheduler.tokens", this, LlmScheduler::availableTokens)
+                .register(registry);
+    }
+
+    /**
+     * Returns a future that completes once the request may be sent, or
+     * fails with {@link LlmUnavailableException} if it was shed. Cancelling
+     * the future gives up its place in the queue.
+     */
+    public CompletableFuture<Void> acquire(LlmPriority priority, LlmOperation op) {
+
+        Ticket ticket;
+
+        synchronized (this) {
+            refill();
+
+            Deque<Ticket> queue = queues.get(priority);
+
+            if (queue.isEmpty() && mayGrant(priority)) {
+                tokens -= 1;
+                waitTimers.get(priority).record(0, TimeUnit.NANOSECONDS);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            boolean full = queue.size() >= maxQueued.get(priority);
+            boolean crowdedOut = priority == LlmPriority.BACKGROUND
+                    && !queues.get(LlmPriority.INTERACTIVE).isEmpty();
+
+            if (full || crowdedOut) {
+                shed.get(priority).increment();
+                return CompletableFuture.failedFuture(shedFailure(op, priority));
+            }
+
+            ticket = new Ticket(priority, op, new CompletableFuture<>(), System.nanoTime());
+            queue.addLast(ticket);
+            scheduleDrain();
+        }
+
+        ticket.permit().whenComplete((granted, error) -> {
+            if (ticket.permit().isCancelled()) {
+                synchronized (this) {
+                    queues.get(priority).remove(ticket);
+                }
+            }
+        });
+
+        return ticket.permit();
+    }
+
+    private void drain() {
+
+        List<Ticket> granted = new ArrayList<>();
+        List<Ticket> expired = new ArrayList<>();
+
+        synchronized (this) {
+            nextDrainAt = Long.MAX_VALUE;
+            refill();
+
+            Deque<Ticket> interactive = queues.get(LlmPriority.INTERACTIVE);
+            while (!interactive.isEmpty() && mayGrant(LlmPriority.INTERACTIVE)) {
+                tokens -= 1;
+                granted.add(interactive.pollFirst());
+            }
+
+            long now = System.nanoTime();
+            Deque<Ticket> background = queues.get(LlmPriority.BACKGROUND);
+            for (Iterator<Ticket> it = background.iterator(); it.hasNext(); ) {
+                Ticket ticket = it.next();
+                if (now - ticket.enqueuedAt() > backgroundMaxWaitNanos) {
+                    it.remove();
+                    expired.add(ticket);
+                }
+            }
+
+            while (interactive.isEmpty() && !background.isEmpty()
+                    && mayGrant(LlmPriority.BACKGROUND)) {
+                tokens -= 1;
+                granted.add(background.pollFirst());
+            }
+
+            if (!interactive.isEmpty() || !background.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        // completed outside the lock: dependent stages run on this thread
+        long now = System.nanoTime();
+        for (Ticket ticket : granted) {
+            waitTimers.get(ticket.priority())
+                    .record(now - ticket.enqueuedAt(), TimeUnit.NANOSECONDS);
+            ticket.permit().complete(null);
+        }
+
+        for (Ticket ticket : expired) {
+            shed.get(ticket.priority()).increment();
+            ticket.permit().completeExceptionally(shedFailure(ticket.op(), ticket.priority()));
+        }
+    }
+
+    // caller holds the lock
+    private boolean mayGrant(LlmPriority priority) {
+        double needed = priority == LlmPriority.BACKGROUND ? 1 + backgroundReserve : 1;
+        return tokens >= needed;
+    }
+
+    // caller holds the lock
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+    // caller holds the lock; wakes up when the head of the queue can be served
+    private void scheduleDrain() {
+
+        double needed = queues.get(LlmPriority.INTERACTIVE).isEmpty() ? 1 + backgroundReserve : 1;
+        long waitNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1),
+                (long) Math.ceil(Math.max(0, needed - tokens) / tokensPerNano));
+        long drainAt = System.nanoTime() + waitNanos;
+
+        if (drainAt >= nextDrainAt) {
+            return;
+        }
+        nextDrainAt = drainAt;
+
+        timer.schedule(this::drain, waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized int depth(LlmPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    private synchronized double availableTokens() {
+        refill();
+        return tokens;
+    }
+
+    private static LlmUnavailableException shedFailure(LlmOperation op, LlmPriority priority) {
+        return new LlmUnavailableException(
+                op.getKey(),
+                "Groq rate limit reached, " + priority.getKey() + " request shed",
+                false,
+                null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
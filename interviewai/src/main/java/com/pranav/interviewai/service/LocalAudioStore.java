@@ -0,0 +1,102 @@
+package com.pranav.interviewai.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+/**
+ * Recordings as files in {@code audio.storage.dir}. Only suitable for a
+ * single node: other instances cannot see the files.
+ */
+@Service
+@ConditionalOnProperty(name = "audio.store", havingValue = "local", matchIfMissing = true)
+public class LocalAudioStore implements AudioStore {
+
+    private final Path dir;
+
+    public LocalAudioStore(@Value("${audio.storage.dir:uploads/audio}") String dir) throws IOException {
+        this.dir = Paths.get(dir);
+        Files.createDirectories(this.dir);
+    }
+
+    /**
+     * Links the file in under its ID. A hard link appears whole or not at
+     * all, and fails if the name is taken, so of two identical uploads
+     * saved at once exactly one reports {@code created}, and only that one
+     * may delete the object again.
+     */
+    @Override
+    public boolean save(String id, Path source, String contentType) throws IOException {
+
+        Path target = dir.resolve(id);
+
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // another file system, or one without hard links: copy it over first
+        }
+
+        Path partial = Files.createTempFile(dir, ".", ".part");
+        try {
+            Files.copy(source, partial, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.createLink(target, partial);
+            } catch (UnsupportedOperationException e) {
+                // without REPLACE_EXISTING this fails rather than overwrite
+                Files.move(partial, target);
+            }
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    @Override
+    public Optional<AudioObject> find(String id) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(dir.resolve(id), BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new AudioObject(
+                    id, attributes.size(), AudioStore.contentType(id), attributes.creationTime().toInstant()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String id, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(dir.resolve(id));
+        channel.position(offset);
+        return Channels.newInputStream(channel);
+    }
+
+    @Override
+    public boolean delete(String id) {
+        try {
+            return Files.deleteIfExists(dir.resolve(id));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
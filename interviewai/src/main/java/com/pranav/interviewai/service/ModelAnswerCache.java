@@ -0,0 +1,114 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.ModelAnswerCacheEntry;
+import com.pranav.interviewai.repository.ModelAnswerCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Model answers keyed by the normalized question text. A bounded in-process
+ * LRU sits in front of the {@code model_answer_cache} collection, whose
+ * documents expire through a TTL index.
+ */
+@Service
+public class ModelAnswerCache {
+
+    private final ModelAnswerCacheRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final BoundedCache<String, String> memory;
+    private final Duration ttl;
+
+    private final Counter memoryHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+
+    public ModelAnswerCache(
+            ModelAnswerCacheRepository repository,
+            MongoTemplate mongoTemplate,
+            MeterRegistry registry,
+            @Value("${model-answer-cache.max-entries:2000}") int maxEntries,
+            @Value("${model-answer-cache.ttl-days:30}") long ttlDays) {
+
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.memory = new BoundedCache<>(maxEntries, ttl);
+
+        this.memoryHits = Counter.builder("model.answer.cache.hits")
+                .tag("tier", "memory")
+                .register(registry);
+        this.mongoHits = Counter.builder("model.answer.cache.hits")
+                .tag("tier", "mongo")
+                .register(registry);
+        this.misses = Counter.builder("model.answer.cache.misses")
+                .register(registry);
+
+        FunctionCounter.builder("model.answer.cache.evictions", memory, BoundedCache::evictionCount)
+                .register(registry);
+        Gauge.builder("model.answer.cache.size", memory, BoundedCache::size)
+                .register(registry);
+    }
+
+    public Optional<String> get(String questionText) {
+
+        String key = ContentHash.of(questionText);
+
+        String cached = memory.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        try {
+            Optional<String> stored = repository.findById(key)
+                    .map(ModelAnswerCacheEntry::getModelAnswer);
+
+            if (stored.isPresent()) {
+                mongoHits.increment();
+                memory.put(key, stored.get());
+                return stored;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String questionText, String modelAnswer) {
+
+        String key = ContentHash.of(questionText);
+        memory.put(key, modelAnswer);
+
+        try {
+            repository.save(new ModelAnswerCacheEntry(
+                    key, questionText, modelAnswer, LocalDateTime.now()));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(ModelAnswerCacheEntry.class)
+                    .createIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(ttl));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.PracticeQuestion;
+import com.pranav.interviewai.entity.Question;
+import com.pranav.interviewai.entity.Session;
+import com.pranav.interviewai.repository.PracticeQuestionRepository;
+import com.pranav.interviewai.repository.SessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Keeps the {@code practice_library} collection in step with the questions
+ * generated during interviews. Each entry is grouped by topic and difficulty
+ * and carries its model answer, so reading the library never calls Groq.
+ */
+@Service
+@RequiredArgsConstructor
+public class PracticeLibraryService {
+
+    private final MongoTemplate mongoTemplate;
+    private final PracticeQuestionRepository libraryRepo;
+    private final SessionRepository sessionRepo;
+    private final GroqService groqService;
+
+    @Value("${practice-library.batch-size:100}")
+    private int batchSize;
+
+    // last question id folded into the library; ids grow with insertion time.
+    // Kept in practice_library_state so a restart does not rescan everything
+    private static final String STATE_COLLECTION = "practice_library_state";
+    private static final String CHECKPOINT_ID = "import-checkpoint";
+
+    private volatile String checkpoint;
+
+    public Page<PracticeQuestion> findByTopic(String topic, String difficulty, Pageable pageable) {
+
+        String topicKey = key(topic);
+
+        if (difficulty == null || difficulty.isBlank()) {
+            return libraryRepo.findByTopicKey(topicKey, pageable);
+        }
+
+        return libraryRepo.findByTopicKeyAndDifficultyKey(topicKey, key(difficulty), pageable);
+    }
+
+    public Page<PracticeQuestion> findAll(Pageable pageable) {
+        return libraryRepo.findAll(pageable);
+    }
+
+    @Scheduled(
+            initialDelayString = "${practice-library.initial-delay-ms:30000}",
+            fixedDelayString = "${practice-library.refresh-ms:600000}")
+    public void refresh() {
+        try {
+            importNewQuestions();
+            fillMissingAnswers();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void importNewQuestions() {
+
+        Map<String, Session> sessions = new HashMap<>();
+
+        if (checkpoint == null) {
+            checkpoint = loadCheckpoint();
+        }
+
+        while (true) {
+
+            Query query = new Query().with(Sort.by("id")).limit(batchSize);
+            if (checkpoint != null) {
+                query.addCriteria(Criteria.where("id").gt(checkpoint));
+            }
+
+            List<Question> batch = mongoTemplate.find(query, Question.class);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            for (Question q : batch) {
+                if (q.getQuestionText() != null && !q.getQuestionText().isBlank()) {
+                    upsert(q, sessions);
+                }
+                checkpoint = q.getId();
+            }
+
+            saveCheckpoint(checkpoint);
+        }
+    }
+
+    private String loadCheckpoint() {
+        Document state = mongoTemplate.findById(CHECKPOINT_ID, Document.class, STATE_COLLECTION);
+        return state == null ? null : state.getString("questionId");
+    }
+
+    private void saveCheckpoint(String questionId) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(CHECKPOINT_ID)),
+                new Update().set("questionId", questionId).set("updatedAt", LocalDateTime.now()),
+                STATE_COLLECTION);
+    }
+
+    private void upsert(Question q, Map<String, Session> sessions) {
+
+        String topic = q.getTopic();
+        String difficulty = q.getDifficulty();
+
+        // questions created before topic/difficulty were stored on them
+        if (topic == null && q.getSessionId() != null) {
+            Session session = sessions.computeIfAbsent(q.getSessionId(),
+                    id -> sessionRepo.findById(id).orElse(null));
+            if (session != null) {
+                topic = session.getTopic();
+                difficulty = session.getDifficulty();
+            }
+        }
+
+        if (topic == null) {
+            return;
+        }
+
+        String id = ContentHash.of(q.getQuestionText());
+        PracticeQuestion existing = libraryRepo.findById(id).orElse(null);
+
+        if (existing != null && existing.getModelAnswer() != null) {
+            return;
+        }
+
+        libraryRepo.save(PracticeQuestion.builder()
+                .id(id)
+                .topic(topic)
+                .difficulty(difficulty)
+                .topicKey(key(topic))
+                .difficultyKey(key(difficulty))
+                .questionText(q.getQuestionText())
+                .modelAnswer(q.getModelAnswer())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void fillMissingAnswers() {
+
+        List<PracticeQuestion> pending =
+                libraryRepo.findByModelAnswerIsNull(PageRequest.of(0, batchSize));
+
+        for (PracticeQuestion entry : pending) {
+            String answer;
+            try {
+                answer = groqService.generateModelAnswer(
+                        entry.getQuestionText(), LlmPriority.BACKGROUND).join();
+            } catch (CompletionException e) {
+                e.printStackTrace();
+                continue;
+            }
+
+            entry.setModelAnswer(answer);
+            entry.setUpdatedAt(LocalDateTime.now());
+            libraryRepo.save(entry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(PracticeQuestion.class)
+                    .createIndex(new Index()
+                            .on("topicKey", Sort.Direction.ASC)
+                            .on("difficultyKey", Sort.Direction.ASC));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
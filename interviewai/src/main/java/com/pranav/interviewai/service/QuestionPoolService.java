@@ -0,0 +1,271 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.Question;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a stock of ready questions (with model answers) for the
+ * (topic, difficulty) pairs we see most, so starting an interview is a
+ * single findAndModify instead of two LLM round trips.
+ *
+ * Pooled questions are ordinary {@link Question} documents carrying a
+ * {@code poolKey}; claiming one clears the key and attaches the session.
+ * A user is never handed a question whose content hash they have seen.
+ */
+@Service
+public class QuestionPoolService {
+
+    private final MongoTemplate mongoTemplate;
+    private final GroqService groqService;
+    private final MeterRegistry registry;
+
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int maxPairs;
+
+    private final Map<String, PoolPair> pairs = new ConcurrentHashMap<>();
+    private final ExecutorService refiller = Executors.newFixedThreadPool(2);
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public QuestionPoolService(
+            MongoTemplate mongoTemplate,
+            GroqService groqService,
+            MeterRegistry registry,
+            @Value("${question-pool.low-watermark:5}") int lowWatermark,
+            @Value("${question-pool.high-watermark:20}") int highWatermark,
+            @Value("${question-pool.max-pairs:50}") int maxPairs,
+            @Value("${question-pool.pairs:}") String configuredPairs) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.groqService = groqService;
+        this.registry = registry;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.maxPairs = maxPairs;
+
+        this.hits = Counter.builder("question.pool.claims").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("question.pool.claims").tag("result", "miss").register(registry);
+
+        // comma separated entries like "java:medium,react:easy"
+        for (String entry : configuredPairs.split(",")) {
+            String[] parts = entry.split(":", 2);
+            if (parts.length == 2 && !parts[0].isBlank()) {
+                pair(parts[0].trim(), parts[1].trim());
+            }
+        }
+    }
+
+    /**
+     * Takes a pooled question for the pair, skipping anything the user has
+     * already been asked. Empty when the pool has nothing suitable, in
+     * which case the caller generates one live.
+     */
+    public Optional<Question> claim(String topic, String difficulty, String userId, String sessionId) {
+
+        PoolPair pair = pair(topic, difficulty);
+
+        if (pair == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        List<String> seen = mongoTemplate.findDistinct(
+                Query.query(Criteria.where("userId").is(userId)),
+                "contentHash",
+                Question.class,
+                String.class);
+
+        Query query = Query.query(Criteria.where("poolKey").is(pair.key())
+                .and("contentHash").nin(seen));
+
+        Update update = new Update()
+                .unset("poolKey")
+                .set("sessionId", sessionId)
+                .set("userId", userId);
+
+        Question claimed = mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), Question.class);
+
+        if (claimed == null) {
+            misses.increment();
+            requestRefill(pair);
+            return Optional.empty();
+        }
+
+        hits.increment();
+        if (pair.depth().decrementAndGet() < lowWatermark) {
+            requestRefill(pair);
+        }
+
+        return Optional.of(claimed);
+    }
+
+    @Scheduled(
+            initialDelayString = "${question-pool.initial-delay-ms:10000}",
+            fixedDelayString = "${question-pool.refill-ms:60000}")
+    public void refillAll() {
+        pairs.values().forEach(this::requestRefill);
+    }
+
+    private void requestRefill(PoolPair pair) {
+        if (pair.refilling().compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                try {
+                    refill(pair);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    pair.refilling().set(false);
+                }
+            });
+        }
+    }
+
+    private void refill(PoolPair pair) {
+
+        int depth = (int) mongoTemplate.count(
+                Query.query(Criteria.where("poolKey").is(pair.key())), Question.class);
+        pair.depth().set(depth);
+
+        if (depth >= lowWatermark) {
+            return;
+        }
+
+        // a few extra attempts to make up for duplicates and failures
+        int attempts = (highWatermark - depth) * 2;
+
+        while (pair.depth().get() < highWatermark && attempts-- > 0) {
+            pair.refillTimer().record(() -> addOne(pair));
+        }
+    }
+
+    private void addOne(PoolPair pair) {
+
+        String questionText;
+        try {
+            questionText = groqService.generateQuestion(
+                    pair.topic(), pair.difficulty(), LlmPriority.BACKGROUND).join();
+        } catch (CompletionException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        if (questionText == null || questionText.isBlank()) {
+            return;
+        }
+
+        String hash = ContentHash.of(questionText);
+        boolean duplicate = mongoTemplate.exists(
+                Query.query(Criteria.where("poolKey").is(pair.key()).and("contentHash").is(hash)),
+                Question.class);
+        if (duplicate) {
+            return;
+        }
+
+        String modelAnswer;
+        try {
+            modelAnswer = groqService.generateModelAnswer(questionText, LlmPriority.BACKGROUND).join();
+        } catch (CompletionException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        Question q = new Question();
+        q.setTopic(pair.topic());
+        q.setDifficulty(pair.difficulty());
+        q.setQuestionText(questionText);
+        q.setModelAnswer(modelAnswer);
+        q.setContentHash(hash);
+        q.setPoolKey(pair.key());
+
+        mongoTemplate.save(q);
+        pair.depth().incrementAndGet();
+    }
+
+    private PoolPair pair(String topic, String difficulty) {
+
+        String key = ContentHash.normalize(topic) + "|" + ContentHash.normalize(difficulty);
+
+        PoolPair existing = pairs.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        // only track a bounded number of pairs; anything else is generated live
+        if (pairs.size() >= maxPairs) {
+            return null;
+        }
+
+        return pairs.computeIfAbsent(key, k -> {
+            PoolPair created = new PoolPair(
+                    k, topic, difficulty,
+                    new AtomicInteger(),
+                    new AtomicBoolean(),
+                    Timer.builder("question.pool.refill")
+                            .tag("topic", topic)
+                            .tag("difficulty", String.valueOf(difficulty))
+                            .register(registry));
+
+            Gauge.builder("question.pool.depth", created.depth(), AtomicInteger::get)
+                    .tag("topic", topic)
+                    .tag("difficulty", String.valueOf(difficulty))
+                    .register(registry);
+
+            return created;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(Question.class)
+                    .createIndex(new Index().on("poolKey", Sort.Direction.ASC).sparse());
+            mongoTemplate.indexOps(Question.class)
+                    .createIndex(new Index().on("userId", Sort.Direction.ASC).sparse());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    private record PoolPair(
+            String key,
+            String topic,
+            String difficulty,
+            AtomicInteger depth,
+            AtomicBoolean refilling,
+            Timer refillTimer) {
+    }
+}
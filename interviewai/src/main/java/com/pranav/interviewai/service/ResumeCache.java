@@ -0,0 +1,176 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.ParsedResume;
+import com.pranav.interviewai.repository.ParsedResumeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed text and extracted skills of uploaded resumes, keyed by the
+ * SHA-256 of the file bytes, so a file seen before skips both the parser
+ * and the LLM. A bounded in-process LRU sits in front of the
+ * {@code parsed_resumes} collection, whose documents expire through a TTL
+ * index.
+ *
+ * Skills are stored per extraction mode and taxonomy version, since the
+ * same text gives different skills with the LLM on or after the taxonomy
+ * changes.
+ */
+@Service
+public class ResumeCache {
+
+    private final ParsedResumeRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final BoundedCache<String, ParsedResume> memory;
+    private final Duration ttl;
+
+    private final Counter memoryHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+
+    public ResumeCache(
+            ParsedResumeRepository repository,
+            MongoTemplate mongoTemplate,
+            MeterRegistry registry,
+            @Value("${resume-cache.max-entries:1000}") int maxEntries,
+            @Value("${resume-cache.ttl-days:30}") long ttlDays) {
+
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.memory = new BoundedCache<>(maxEntries, ttl);
+
+        this.memoryHits = Counter.builder("resume.cache.hits")
+                .tag("tier", "memory")
+                .register(registry);
+        this.mongoHits = Counter.builder("resume.cache.hits")
+                .tag("tier", "mongo")
+                .register(registry);
+        this.misses = Counter.builder("resume.cache.misses")
+                .register(registry);
+
+        FunctionCounter.builder("resume.cache.evictions", memory, BoundedCache::evictionCount)
+                .register(registry);
+        Gauge.builder("resume.cache.size", memory, BoundedCache::size)
+                .register(registry);
+    }
+
+    /**
+     * The cached entry for a file hash, or null. Entries handed out are
+     * never modified afterwards.
+     */
+    public ParsedResume get(String fileHash) {
+
+        ParsedResume cached = memory.get(fileHash);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+
+        try {
+            ParsedResume stored = repository.findById(fileHash).orElse(null);
+
+            if (stored != null) {
+                mongoHits.increment();
+                memory.put(fileHash, stored);
+                return stored;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Skills cached on an entry under {@code skillKey}, or null.
+     */
+    public static ExtractedSkills skills(ParsedResume entry, String skillKey) {
+
+        if (entry.getSkills() == null || !entry.getSkills().containsKey(skillKey)) {
+            return null;
+        }
+
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (ParsedResume.Skill skill : entry.getSkills().get(skillKey)) {
+            sources.put(skill.getName(), skill.getSource());
+        }
+
+        return new ExtractedSkills(sources);
+    }
+
+    public void putText(String fileHash, String text) {
+
+        ParsedResume entry = new ParsedResume(fileHash, text, Map.of(), LocalDateTime.now());
+        memory.put(fileHash, entry);
+
+        try {
+            Update update = new Update()
+                    .set("text", text)
+                    .setOnInsert("createdAt", entry.getCreatedAt());
+            mongoTemplate.upsert(byId(fileHash), update, ParsedResume.class);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void putSkills(String fileHash, String skillKey, ExtractedSkills skills) {
+
+        List<ParsedResume.Skill> list = new ArrayList<>();
+        skills.sources().forEach((name, source) -> list.add(new ParsedResume.Skill(name, source)));
+
+        ParsedResume current = memory.get(fileHash);
+        if (current != null) {
+            // copy rather than mutate: readers may still hold the old entry
+            Map<String, List<ParsedResume.Skill>> bySkillKey = current.getSkills() == null
+                    ? new HashMap<>()
+                    : new HashMap<>(current.getSkills());
+            bySkillKey.put(skillKey, list);
+            memory.put(fileHash, new ParsedResume(
+                    fileHash, current.getText(), bySkillKey, current.getCreatedAt()));
+        }
+
+        try {
+            // only the one mode's field, so concurrent modes do not clobber each other
+            Update update = new Update().set("skills." + skillKey, list);
+            mongoTemplate.updateFirst(byId(fileHash), update, ParsedResume.class);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(ParsedResume.class)
+                    .createIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(ttl));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Query byId(String fileHash) {
+        return new Query(Criteria.where("_id").is(fileHash));
+    }
+}
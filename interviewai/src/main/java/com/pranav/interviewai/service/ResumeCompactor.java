@@ -0,0 +1,221 @@
+package com.pranav.interviewai.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks a document before it goes into a skill extraction prompt.
+ *
+ * Whitespace and bullet glyphs are normalized, contact lines (emails,
+ * phone numbers, links, postal addresses) are dropped, and so are whole
+ * sections whose heading says they carry no skills, such as references or
+ * hobbies. What is left is cut into chunks of at most {@code chunk-tokens}
+ * estimated tokens, preferring section and then line boundaries, so long
+ * resumes can be sent as several parallel prompts.
+ */
+@Component
+public class ResumeCompactor {
+
+    public record Compacted(List<String> chunks, int originalTokens, int compactedTokens) {
+    }
+
+    // headings of sections that never hold skills
+    private static final Set<String> SKIPPED_SECTIONS = Set.of(
+            "references", "referees", "hobbies", "interests", "hobbies and interests",
+            "personal details", "personal information", "personal info", "personal profile",
+            "contact", "contact details", "contact information", "address",
+            "declaration", "extracurricular activities", "volunteering");
+
+    // headings that start a new (kept) section, for chunk boundaries
+    private static final Set<String> KNOWN_SECTIONS = Set.of(
+            "summary", "profile", "objective", "career objective", "professional summary",
+            "skills", "technical skills", "key skills", "core competencies",
+            "experience", "work experience", "professional experience", "employment history",
+            "projects", "personal projects", "academic projects",
+            "education", "certifications", "certificates", "achievements", "awards",
+            "publications", "languages", "tools", "technologies");
+
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+\\.[\\w.]+");
+    // a scheme, www., or a lower-case host with a link TLD and a path, as
+    // in linkedin.com/in/x; "Node.js/Express" and "ASP.NET/C#" are skills
+    private static final Pattern URL = Pattern.compile(
+            "(?i:https?://|www\\.)\\S+"
+                    + "|(?<![\\w.])[a-z0-9-]+(\\.[a-z0-9-]+)*\\.(com|org|net|io|dev|me|co|in|ai|app|tech|xyz|site|page|gg|ly)/\\S*");
+    private static final Pattern PHONE = Pattern.compile("\\+?\\d[\\d ()./-]{7,}\\d");
+    private static final Pattern ADDRESS = Pattern.compile(
+            "\\b(street|st\\.|road|rd\\.|avenue|ave\\.|lane|nagar|colony|sector|apt|apartment|pin ?code|zip)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern POSTAL_CODE = Pattern.compile("\\b\\d{5,6}\\b");
+    private static final Pattern BULLET = Pattern.compile("^[\\u2022\\u25AA\\u25CF\\u25E6\\u2023\\u2043\\u2219*>\\-\\u2013\\u2014\\u00B7]+\\s*");
+    private static final Pattern SPACES = Pattern.compile("[\\s\\u00A0]+");
+    private static final Pattern HEADING_PUNCTUATION = Pattern.compile("[:\\-\\u2013\\u2014|_=#*]+$");
+
+    private final int chunkTokens;
+
+    public ResumeCompactor(@Value("${ats.skills.chunk-tokens:1500}") int chunkTokens) {
+        this.chunkTokens = Math.max(100, chunkTokens);
+    }
+
+    public Compacted compact(String text) {
+
+        int originalTokens = estimateTokens(text);
+
+        List<List<String>> sections = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        boolean skipping = false;
+
+        for (String raw : Normalizer.normalize(text == null ? "" : text, Normalizer.Form.NFKC).split("\\R")) {
+
+            String line = BULLET.matcher(SPACES.matcher(raw).replaceAll(" ").trim()).replaceFirst("");
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String heading = heading(line);
+            if (heading != null) {
+                skipping = SKIPPED_SECTIONS.contains(heading);
+                if (!current.isEmpty()) {
+                    sections.add(current);
+                    current = new ArrayList<>();
+                }
+                if (!skipping) {
+                    current.add(line);
+                }
+                continue;
+            }
+
+            if (skipping || isContactLine(line)) {
+                continue;
+            }
+
+            current.add(line);
+        }
+
+        if (!current.isEmpty()) {
+            sections.add(current);
+        }
+
+        List<String> chunks = chunk(sections);
+
+        int compactedTokens = 0;
+        for (String chunk : chunks) {
+            compactedTokens += estimateTokens(chunk);
+        }
+
+        return new Compacted(chunks, originalTokens, compactedTokens);
+    }
+
+    /**
+     * Rough token count for Llama-style tokenizers: about four characters
+     * of English text per token.
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    private List<String> chunk(List<List<String>> sections) {
+
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        int used = 0;
+
+        for (List<String> section : sections) {
+
+            // start a fresh chunk rather than split a section that would fit in one
+            int sectionTokens = 0;
+            for (String line : section) {
+                sectionTokens += estimateTokens(line) + 1;
+            }
+            if (used > 0 && sectionTokens <= chunkTokens && used + sectionTokens > chunkTokens) {
+                flush(chunk, chunks);
+                used = 0;
+            }
+
+            for (String line : section) {
+                for (String piece : splitLine(line)) {
+                    int tokens = estimateTokens(piece) + 1;
+                    if (used > 0 && used + tokens > chunkTokens) {
+                        flush(chunk, chunks);
+                        used = 0;
+                    }
+                    if (chunk.length() > 0) {
+                        chunk.append('\n');
+                    }
+                    chunk.append(piece);
+                    used += tokens;
+                }
+            }
+        }
+
+        flush(chunk, chunks);
+        return chunks;
+    }
+
+    // a single line longer than the budget is cut at word boundaries
+    private List<String> splitLine(String line) {
+
+        int maxChars = chunkTokens * 4;
+        if (line.length() <= maxChars) {
+            return List.of(line);
+        }
+
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (start < line.length()) {
+            int end = Math.min(line.length(), start + maxChars);
+            if (end < line.length()) {
+                int space = line.lastIndexOf(' ', end);
+                if (space > start) {
+                    end = space;
+                }
+            }
+            pieces.add(line.substring(start, end).trim());
+            start = end;
+        }
+
+        return pieces;
+    }
+
+    private static void flush(StringBuilder chunk, List<String> chunks) {
+        if (chunk.length() > 0) {
+            chunks.add(chunk.toString());
+            chunk.setLength(0);
+        }
+    }
+
+    private static String heading(String line) {
+
+        if (line.length() > 40) {
+            return null;
+        }
+
+        String key = HEADING_PUNCTUATION.matcher(line).replaceAll("")
+                .trim()
+                .toLowerCase(Locale.ROOT)
+                .replace("&", "and");
+
+        return SKIPPED_SECTIONS.contains(key) || KNOWN_SECTIONS.contains(key) ? key : null;
+    }
+
+    private static boolean isContactLine(String line) {
+
+        String rest = URL.matcher(EMAIL.matcher(line).replaceAll("")).replaceAll("");
+        rest = PHONE.matcher(rest).replaceAll("");
+
+        // only contact details on the line, give or take separators and labels
+        if (rest.length() < line.length()
+                && rest.replaceAll("(?i)\\b(email|e-mail|phone|mobile|tel|linkedin|github|portfolio)\\b", "")
+                        .replaceAll("[\\s|,:;/\\u2022\\u00B7()-]+", "").isEmpty()) {
+            return true;
+        }
+
+        return line.length() <= 120 && ADDRESS.matcher(line).find() && POSTAL_CODE.matcher(line).find();
+    }
+}
@@ -1,16 +1,82 @@
 package com.pranav.interviewai.service;
 
+import com.pranav.interviewai.exception.ResumeLimitExceededException;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
 import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
+/**
+ * Turns uploaded resumes into plain text without holding whole documents
+ * on the heap.
+ *
+ * PDFs are spooled to a temp file and opened with temp-file-backed
+ * buffers; longer ones are split into page ranges that are stripped in
+ * parallel, each worker with its own {@link PDDocument} (they are not
+ * thread-safe), and stitched back in page order. DOCX files are read as a
+ * zip stream and {@code word/document.xml} is scanned with StAX instead of
+ * building the POI object model. Byte and page limits apply to both.
+ */
 @Service
 public class ResumeParserService {
 
+    private static final String WORD_NS =
+            "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final XMLInputFactory XML_INPUT = XMLInputFactory.newInstance();
+
+    static {
+        XML_INPUT.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final long maxBytes;
+    private final long maxXmlBytes;
+    private final int maxPages;
+    private final int minPagesPerTask;
+    private final int threads;
+    private final ExecutorService pagePool;
+
+    public ResumeParserService(
+            @Value("${resume.parser.max-bytes:20971520}") long maxBytes,
+            @Value("${resume.parser.max-xml-bytes:104857600}") long maxXmlBytes,
+            @Value("${resume.parser.max-pages:100}") int maxPages,
+            @Value("${resume.parser.min-pages-per-task:8}") int minPagesPerTask,
+            @Value("${resume.parser.parallelism:0}") int parallelism) {
+
+        this.maxBytes = maxBytes;
+        this.maxXmlBytes = maxXmlBytes;
+        this.maxPages = maxPages;
+        this.minPagesPerTask = Math.max(1, minPagesPerTask);
+        this.threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pagePool = Executors.newFixedThreadPool(threads);
+    }
+
     public String extractText(MultipartFile file) throws Exception {
 
         String filename = file.getOriginalFilename();
@@ -19,32 +85,238 @@ public class ResumeParserService {
             throw new RuntimeException("Invalid file");
         }
 
-        if (filename.endsWith(".pdf")) {
+        if (file.getSize() > maxBytes) {
+            throw new ResumeLimitExceededException("Resume exceeds " + maxBytes + " bytes");
+        }
+
+        try (InputStream is = file.getInputStream()) {
+            return extractText(filename, is);
+        }
+    }
+
+    public String extractText(String filename, InputStream is) throws Exception {
+
+        if (!isSupported(filename)) {
+            throw new RuntimeException("Unsupported file format");
+        }
+
+        InputStream limited = new LimitedInputStream(is, maxBytes, "Resume exceeds " + maxBytes + " bytes");
+
+        if (!isPdf(filename)) {
+            return extractDocxText(limited);
+        }
+
+        Path spooled = Files.createTempFile("resume", ".pdf");
+        try {
+            try (OutputStream out = Files.newOutputStream(spooled)) {
+                limited.transferTo(out);
+            }
+            return extractPdfText(spooled);
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    /**
+     * For files already on disk, such as spooled zip entries: no extra copy.
+     */
+    public String extractText(String filename, Path file) throws Exception {
+
+        if (!isSupported(filename)) {
+            throw new RuntimeException("Unsupported file format");
+        }
+
+        if (Files.size(file) > maxBytes) {
+            throw new ResumeLimitExceededException("Resume exceeds " + maxBytes + " bytes");
+        }
+
+        if (isPdf(filename)) {
             return extractPdfText(file);
         }
 
-        if (filename.endsWith(".docx")) {
-            return extractDocxText(file);
+        try (InputStream is = Files.newInputStream(file)) {
+            return extractDocxText(is);
+        }
+    }
+
+    public boolean isSupported(String filename) {
+        String name = filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".pdf") || name.endsWith(".docx");
+    }
+
+    private static boolean isPdf(String filename) {
+        return filename.toLowerCase(Locale.ROOT).endsWith(".pdf");
+    }
+
+    private String extractPdfText(Path file) throws Exception {
+
+        try (PDDocument document = load(file)) {
+
+            int pages = document.getNumberOfPages();
+            if (pages > maxPages) {
+                throw new ResumeLimitExceededException(
+                        "Resume has " + pages + " pages, limit is " + maxPages);
+            }
+
+            // every extra range reopens the file, so only split when each
+            // worker gets a worthwhile share of the pages
+            int ranges = Math.min(threads, pages / minPagesPerTask);
+            if (ranges <= 1) {
+                return strip(document, 1, pages);
+            }
+
+            int rangeSize = (pages + ranges - 1) / ranges;
+
+            // the rest of the ranges go to the pool; the first is stripped here
+            List<CompletableFuture<String>> rest = new ArrayList<>();
+            for (int first = rangeSize + 1; first <= pages; first += rangeSize) {
+                int from = first;
+                int to = Math.min(pages, first + rangeSize - 1);
+                rest.add(CompletableFuture.supplyAsync(() -> extractRange(file, from, to), pagePool));
+            }
+
+            StringBuilder text = new StringBuilder(strip(document, 1, rangeSize));
+
+            for (CompletableFuture<String> part : rest) {
+                try {
+                    text.append(part.join());
+                } catch (CompletionException e) {
+                    rest.forEach(f -> f.cancel(true));
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+
+            return text.toString();
+        }
+    }
+
+    private String extractRange(Path file, int from, int to) {
+        try (PDDocument document = load(file)) {
+            return strip(document, from, to);
+        } catch (IOException e) {
+            throw new CompletionException(e);
         }
+    }
 
-        throw new RuntimeException("Unsupported file format");
+    private static String strip(PDDocument document, int from, int to) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(from);
+        stripper.setEndPage(to);
+        return stripper.getText(document);
     }
 
-    private String extractPdfText(MultipartFile file) throws Exception {
-        try (InputStream is = file.getInputStream();
-             PDDocument document = PDDocument.load(is)) {
+    private static PDDocument load(Path file) throws IOException {
+
+        PDDocument document = PDDocument.load(file.toFile(), MemoryUsageSetting.setupTempFileOnly());
+
+        // text extraction never needs decoded images again; don't keep them
+        document.setResourceCache(new DefaultResourceCache() {
+            @Override
+            public void put(COSObject indirect, PDXObject xobject) {
+            }
+        });
 
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+        return document;
+    }
+
+    private String extractDocxText(InputStream is) throws Exception {
+
+        ZipInputStream zip = new ZipInputStream(is);
+
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if ("word/document.xml".equals(entry.getName())) {
+                return readDocumentXml(new LimitedInputStream(
+                        zip, maxXmlBytes, "Resume text exceeds " + maxXmlBytes + " bytes"));
+            }
         }
+
+        throw new RuntimeException("Invalid DOCX file");
     }
-    private String extractDocxText(MultipartFile file) throws Exception {
-        try (InputStream is = file.getInputStream();
-        XWPFDocument doc = new XWPFDocument(is)) {
-            StringBuilder text = new StringBuilder();
-            doc.getParagraphs().forEach(p ->text.append(p.getText()).append("\n")
-        );
+
+    // text runs (w:t) in document order; a newline per paragraph as before
+    private static String readDocumentXml(InputStream xml) throws Exception {
+
+        XMLStreamReader reader = XML_INPUT.createXMLStreamReader(xml);
+        StringBuilder text = new StringBuilder();
+        boolean inText = false;
+
+        try {
+            while (reader.hasNext()) {
+
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> text.append('\t');
+                        case "br", "cr" -> text.append('\n');
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = false;
+                        case "p" -> text.append('\n');
+                        default -> { }
+                    }
+                } else if (inText && (event == XMLStreamConstants.CHARACTERS
+                        || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE)) {
+                    text.append(reader.getText());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
         return text.toString();
     }
-}
+
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private final String message;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit, String message) {
+            super(in);
+            this.limit = limit;
+            this.message = message;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        // keep zip entries readable after the xml parser closes its stream
+        @Override
+        public void close() {
+        }
+
+        private void count(long n) {
+            count += n;
+            if (count > limit) {
+                throw new ResumeLimitExceededException(message);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pagePool.shutdownNow();
+    }
 }
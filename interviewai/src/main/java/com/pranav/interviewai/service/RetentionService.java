@@ -0,0 +1,403 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.InterviewAttempt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Background retention for attempts and their recordings. Each sweep works
+ * through three policies, oldest attempts first:
+ *
+ * - attempts older than {@code retention.attempts.archive-after-days} have
+ *   their large text moved to the cold collection ({@link AttemptArchiveService});
+ * - recordings older than {@code retention.audio.transcode-after-days} are
+ *   re-encoded with {@code retention.audio.transcode-command} (Opus by
+ *   default) and kept only if that made them smaller;
+ * - recordings older than {@code retention.audio.delete-after-days} are
+ *   deleted and the attempt's {@code audioUrl} cleared.
+ *
+ * A policy set to 0 days is off; only archiving is on by default.
+ *
+ * The sweep runs on its own thread so it never holds up the scheduler,
+ * in batches of {@code retention.batch-size} with
+ * {@code retention.batch-pause-ms} between them, and stops after
+ * {@code retention.max-batches}; the next sweep carries on from where this
+ * one stopped.
+ */
+@Service
+public class RetentionService {
+
+    private static final String AUDIO_PREFIX = "/audio/";
+
+    private final MongoTemplate mongoTemplate;
+    private final AttemptArchiveService archiveService;
+    private final AudioStore audioStore;
+    private final AudioStorageService audioStorage;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatches;
+    private final int archiveAfterDays;
+    private final int transcodeAfterDays;
+    private final int deleteAfterDays;
+    private final List<String> transcodeCommand;
+    private final String transcodeContentType;
+    private final long transcodeTimeoutMs;
+
+    private final ExecutorService sweeper = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    // last attempt ID each policy handled; null starts from the oldest
+    private String archiveCheckpoint;
+    private String transcodeCheckpoint;
+    private String deleteCheckpoint;
+
+    // already compact enough; not worth re-encoding on every pass
+    private final BoundedCache<String, Boolean> notSmaller = new BoundedCache<>(10_000, Duration.ofDays(30));
+
+    private final Timer sweepTimer;
+    private final Counter archived;
+    private final Counter archivedBytesSaved;
+    private final Counter transcoded;
+    private final Counter transcodedBytesSaved;
+    private final Counter audioDeleted;
+    private final Counter failures;
+
+    public RetentionService(
+            MongoTemplate mongoTemplate,
+            AttemptArchiveService archiveService,
+            AudioStore audioStore,
+            AudioStorageService audioStorage,
+            MeterRegistry registry,
+            @Value("${retention.enabled:true}") boolean enabled,
+            @Value("${retention.batch-size:100}") int batchSize,
+            @Value("${retention.batch-pause-ms:500}") long batchPauseMs,
+            @Value("${retention.max-batches:20}") int maxBatches,
+            @Value("${retention.attempts.archive-after-days:90}") int archiveAfterDays,
+            @Value("${retention.audio.transcode-after-days:0}") int transcodeAfterDays,
+            @Value("${retention.audio.delete-after-days:0}") int deleteAfterDays,
+            @Value("${retention.audio.transcode-command:ffmpeg -nostdin -y -loglevel error -i {in} -vn -c:a libopus -b:a 24k -application voip -f ogg {out}}") String transcodeCommand,
+            @Value("${retention.audio.transcode-content-type:audio/ogg}") String transcodeContentType,
+            @Value("${retention.audio.transcode-timeout-ms:120000}") long transcodeTimeoutMs) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.archiveService = archiveService;
+        this.audioStore = audioStore;
+        this.audioStorage = audioStorage;
+
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatches = maxBatches;
+        this.archiveAfterDays = archiveAfterDays;
+        this.transcodeAfterDays = transcodeAfterDays;
+        this.deleteAfterDays = deleteAfterDays;
+        this.transcodeCommand = List.of(transcodeCommand.trim().split("\\s+"));
+        this.transcodeContentType = transcodeContentType;
+        this.transcodeTimeoutMs = transcodeTimeoutMs;
+
+        this.sweepTimer = Timer.builder("retention.sweep").register(registry);
+        this.archived = Counter.builder("retention.attempts.archived").register(registry);
+        this.archivedBytesSaved = Counter.builder("retention.bytes.saved")
+                .tag("kind", "attempts")
+                .baseUnit("bytes")
+                .register(registry);
+        this.transcoded = Counter.builder("retention.audio.transcoded").register(registry);
+        this.transcodedBytesSaved = Counter.builder("retention.bytes.saved")
+                .tag("kind", "audio")
+                .baseUnit("bytes")
+                .register(registry);
+        this.audioDeleted = Counter.builder("retention.audio.deleted").register(registry);
+        this.failures = Counter.builder("retention.failures").register(registry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${retention.initial-delay-ms:120000}",
+            fixedDelayString = "${retention.sweep-ms:900000}")
+    public void requestSweep() {
+        if (enabled && sweeping.compareAndSet(false, true)) {
+            sweeper.execute(() -> {
+                try {
+                    sweepTimer.record(this::sweep);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    sweeping.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private void sweep() {
+
+        int budget = maxBatches;
+
+        // deleting first means nothing is transcoded only to be deleted
+        if (deleteAfterDays > 0) {
+            budget = deleteAudio(budget);
+        }
+        if (transcodeAfterDays > 0) {
+            budget = transcodeAudio(budget);
+        }
+        if (archiveAfterDays > 0) {
+            archiveAttempts(budget);
+        }
+    }
+
+    private int archiveAttempts(int budget) {
+
+        while (budget > 0) {
+
+            Query query = olderThan(archiveAfterDays, archiveCheckpoint)
+                    .addCriteria(Criteria.where("archived").ne(true));
+
+            List<InterviewAttempt> batch = mongoTemplate.find(query, InterviewAttempt.class);
+            budget--;
+
+            if (batch.isEmpty()) {
+                archiveCheckpoint = null;
+                return budget;
+            }
+
+            for (InterviewAttempt attempt : batch) {
+                try {
+                    AttemptArchiveService.Archived result = archiveService.archive(attempt);
+                    archived.increment();
+                    archivedBytesSaved.increment(result.originalBytes() - result.compressedBytes());
+                } catch (Exception e) {
+                    failures.increment();
+                    e.printStackTrace();
+                }
+                archiveCheckpoint = attempt.getId();
+            }
+
+            if (!pause()) {
+                return 0;
+            }
+        }
+
+        return budget;
+    }
+
+    private int transcodeAudio(int budget) {
+
+        String extension = AudioStore.id("", transcodeContentType);
+
+        while (budget > 0) {
+
+            // stored recordings not already in the compact format
+            Query query = olderThan(transcodeAfterDays, transcodeCheckpoint)
+                    .addCriteria(Criteria.where("audioUrl").regex(
+                            "^" + Pattern.quote(AUDIO_PREFIX) + ".*(?<!" + Pattern.quote(extension) + ")$"));
+            query.fields().include("id", "audioUrl");
+
+            List<InterviewAttempt> batch = mongoTemplate.find(query, InterviewAttempt.class);
+            budget--;
+
+            if (batch.isEmpty()) {
+                transcodeCheckpoint = null;
+                return budget;
+            }
+
+            for (InterviewAttempt attempt : batch) {
+                try {
+                    transcode(attempt.getAudioUrl().substring(AUDIO_PREFIX.length()));
+                } catch (Exception e) {
+                    failures.increment();
+                    e.printStackTrace();
+                }
+                transcodeCheckpoint = attempt.getId();
+            }
+
+            if (!pause()) {
+                return 0;
+            }
+        }
+
+        return budget;
+    }
+
+    /**
+     * Recordings are shared between attempts with the same bytes, so every
+     * attempt pointing at the old ID is moved to the new one before the old
+     * object is deleted.
+     */
+    private void transcode(String id) throws IOException, InterruptedException {
+
+        if (!AudioStore.isValidId(id) || notSmaller.get(id) != null) {
+            return;
+        }
+
+        AudioStore.AudioObject original = audioStore.find(id).orElse(null);
+        if (original == null) {
+            return;
+        }
+
+        Path in = Files.createTempFile("retention-", ".in");
+        Path out = Files.createTempFile("retention-", ".out");
+
+        try {
+            try (InputStream source = audioStore.open(id, 0)) {
+                Files.copy(source, in, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            List<String> command = new ArrayList<>(transcodeCommand.size());
+            for (String part : transcodeCommand) {
+                command.add(part.replace("{in}", in.toString()).replace("{out}", out.toString()));
+            }
+
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+
+            if (!process.waitFor(transcodeTimeoutMs, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("Transcoding " + id + " timed out");
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("Transcoding " + id + " exited with " + process.exitValue());
+            }
+
+            long size = Files.size(out);
+            if (size == 0 || size >= original.length()) {
+                notSmaller.put(id, Boolean.TRUE);
+                return;
+            }
+
+            String compactId = AudioStore.id(ContentHash.of(out), transcodeContentType);
+            audioStore.save(compactId, out, transcodeContentType);
+
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("audioUrl").is(audioStorage.url(id))),
+                    new Update().set("audioUrl", audioStorage.url(compactId)),
+                    InterviewAttempt.class);
+
+            deleteIfUnreferenced(id);
+
+            transcoded.increment();
+            transcodedBytesSaved.increment(original.length() - size);
+
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+        }
+    }
+
+    private int deleteAudio(int budget) {
+
+        while (budget > 0) {
+
+            Query query = olderThan(deleteAfterDays, deleteCheckpoint)
+                    .addCriteria(Criteria.where("audioUrl").regex("^" + Pattern.quote(AUDIO_PREFIX)));
+            query.fields().include("id", "audioUrl");
+
+            List<InterviewAttempt> batch = mongoTemplate.find(query, InterviewAttempt.class);
+            budget--;
+
+            if (batch.isEmpty()) {
+                deleteCheckpoint = null;
+                return budget;
+            }
+
+            for (InterviewAttempt attempt : batch) {
+                try {
+                    mongoTemplate.updateFirst(
+                            new Query(Criteria.where("id").is(attempt.getId())),
+                            new Update().unset("audioUrl"),
+                            InterviewAttempt.class);
+
+                    if (deleteIfUnreferenced(attempt.getAudioUrl().substring(AUDIO_PREFIX.length()))) {
+                        audioDeleted.increment();
+                    }
+                } catch (Exception e) {
+                    failures.increment();
+                    e.printStackTrace();
+                }
+                deleteCheckpoint = attempt.getId();
+            }
+
+            if (!pause()) {
+                return 0;
+            }
+        }
+
+        return budget;
+    }
+
+    // a newer attempt may have uploaded the same bytes since
+    private boolean deleteIfUnreferenced(String id) {
+
+        boolean referenced = mongoTemplate.exists(
+                new Query(Criteria.where("audioUrl").is(audioStorage.url(id))),
+                InterviewAttempt.class);
+
+        return !referenced && AudioStore.isValidId(id) && audioStore.delete(id);
+    }
+
+    /**
+     * Attempts created more than {@code days} ago, after {@code checkpoint},
+     * in ID order. ObjectIds start with their creation time, so the ID
+     * bound lets Mongo walk only the old part of the {@code _id} index.
+     */
+    private Query olderThan(int days, String checkpoint) {
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+        String cutoffId = new ObjectId(Date.from(cutoff.atZone(ZoneId.systemDefault()).toInstant())).toHexString();
+
+        Criteria id = Criteria.where("id").lt(cutoffId);
+        if (checkpoint != null) {
+            id = id.gt(checkpoint);
+        }
+
+        return new Query(id)
+                .addCriteria(Criteria.where("createdAt").lt(cutoff))
+                .with(Sort.by("id"))
+                .limit(batchSize);
+    }
+
+    // gives live traffic the database between batches
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.pranav.interviewai.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Finds taxonomy skills in free text with an Aho-Corasick automaton, in
+ * one pass over the text however many aliases the taxonomy has.
+ *
+ * Text is lowercased and whitespace runs are folded to a single space
+ * before scanning, so "Spring\n  Boot" still hits "spring boot". A match
+ * only counts on word boundaries, and overlapping matches resolve to the
+ * leftmost-longest one ("apache kafka" is kafka, not apache).
+ */
+@Component
+public class SkillMatcher {
+
+    private final SkillTaxonomy taxonomy;
+
+    // automaton; node 0 is the root. Edges are sorted per node for binary search.
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // pattern ending exactly at this node, or -1
+    private final int[] output;
+    // nearest node on the fail chain that has an output, or -1
+    private final int[] outputLink;
+
+    private final int[] patternLength;
+    private final String[] patternSkill;
+    private final boolean[] patternWordStart;
+    private final boolean[] patternWordEnd;
+
+    public SkillMatcher() {
+        this(SkillTaxonomy.loadDefault());
+    }
+
+    public SkillMatcher(SkillTaxonomy taxonomy) {
+
+        this.taxonomy = taxonomy;
+
+        Map<String, String> patterns = taxonomy.patterns();
+        int count = patterns.size();
+
+        patternLength = new int[count];
+        patternSkill = new String[count];
+        patternWordStart = new boolean[count];
+        patternWordEnd = new boolean[count];
+
+        // build the trie with sorted maps, then flatten it into arrays
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(-1);
+
+        int index = 0;
+        for (Map.Entry<String, String> entry : patterns.entrySet()) {
+
+            String pattern = entry.getKey();
+
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(-1);
+                    trie.get(node).put(pattern.charAt(i), next);
+                }
+                node = next;
+            }
+
+            ends.set(node, index);
+            patternLength[index] = pattern.length();
+            patternSkill[index] = entry.getValue();
+            patternWordStart[index] = isWordChar(pattern.charAt(0));
+            patternWordEnd[index] = isWordChar(pattern.charAt(pattern.length() - 1));
+            index++;
+        }
+
+        int nodes = trie.size();
+        edgeChars = new char[nodes][];
+        edgeTargets = new int[nodes][];
+        output = new int[nodes];
+        fail = new int[nodes];
+        outputLink = new int[nodes];
+
+        for (int n = 0; n < nodes; n++) {
+            TreeMap<Character, Integer> edges = trie.get(n);
+            edgeChars[n] = new char[edges.size()];
+            edgeTargets[n] = new int[edges.size()];
+            int e = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[n][e] = edge.getKey();
+                edgeTargets[n][e] = edge.getValue();
+                e++;
+            }
+            output[n] = ends.get(n);
+        }
+
+        // breadth-first over the trie to fill in failure and output links
+        outputLink[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            fail[child] = 0;
+            outputLink[child] = -1;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+
+            for (int e = 0; e < edgeChars[node].length; e++) {
+                char c = edgeChars[node][e];
+                int child = edgeTargets[node][e];
+
+                int f = fail[node];
+                while (f != 0 && step(f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = step(f, c);
+                fail[child] = target >= 0 && target != child ? target : 0;
+
+                int via = fail[child];
+                outputLink[child] = output[via] >= 0 ? via : outputLink[via];
+
+                queue.add(child);
+            }
+        }
+    }
+
+    public SkillTaxonomy taxonomy() {
+        return taxonomy;
+    }
+
+    /**
+     * Canonical skills found in {@code text}, in order of first appearance.
+     */
+    public Set<String> match(String text) {
+
+        char[] buf = fold(text);
+        int length = buf.length;
+
+        // candidate matches as (start, patternIndex), leftmost-longest kept below
+        int[] bestAt = new int[length];
+        Arrays.fill(bestAt, -1);
+
+        int node = 0;
+        for (int i = 0; i < length; i++) {
+
+            char c = buf[i];
+            int next;
+            while ((next = step(node, c)) < 0 && node != 0) {
+                node = fail[node];
+            }
+            node = Math.max(next, 0);
+
+            for (int hit = output[node] >= 0 ? node : outputLink[node];
+                 hit >= 0;
+                 hit = outputLink[hit]) {
+
+                int p = output[hit];
+                int start = i + 1 - patternLength[p];
+
+                if (patternWordStart[p] && start > 0 && isWordChar(buf[start - 1])) {
+                    continue;
+                }
+                if (patternWordEnd[p] && i + 1 < length && isWordChar(buf[i + 1])) {
+                    continue;
+                }
+
+                if (bestAt[start] < 0 || patternLength[bestAt[start]] < patternLength[p]) {
+                    bestAt[start] = p;
+                }
+            }
+        }
+
+        Set<String> skills = new LinkedHashSet<>();
+        int coveredUntil = 0;
+        for (int start = 0; start < length; start++) {
+            int p = bestAt[start];
+            if (p >= 0 && start >= coveredUntil) {
+                skills.add(patternSkill[p]);
+                coveredUntil = start + patternLength[p];
+            }
+        }
+
+        return skills;
+    }
+
+    private int step(int node, char c) {
+        int e = Arrays.binarySearch(edgeChars[node], c);
+        return e >= 0 ? edgeTargets[node][e] : -1;
+    }
+
+    // lowercase and fold whitespace runs to one space, in one pass
+    private static char[] fold(String text) {
+
+        char[] buf = new char[text.length()];
+        int n = 0;
+        boolean space = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && n > 0) {
+                buf[n++] = ' ';
+            }
+            space = false;
+            buf[n++] = Character.toLowerCase(c);
+        }
+
+        return n == buf.length ? buf : Arrays.copyOf(buf, n);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+}
@@ -0,0 +1,113 @@
+package com.pranav.interviewai.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Curated skill names and their aliases, read from
+ * {@code skills/taxonomy.txt}. See that file for the format.
+ */
+public class SkillTaxonomy {
+
+    public static final String DEFAULT_RESOURCE = "skills/taxonomy.txt";
+
+    // names the matcher scans for -> canonical skill
+    private final Map<String, String> patterns;
+    // every known name, ambiguous ones included -> canonical skill
+    private final Map<String, String> names;
+    // changes whenever the file does; part of cached skill keys
+    private final String version;
+
+    private SkillTaxonomy(Map<String, String> patterns, Map<String, String> names) {
+        this.patterns = Collections.unmodifiableMap(patterns);
+        this.names = Collections.unmodifiableMap(names);
+        this.version = ContentHash.of(patterns.toString(), names.toString()).substring(0, 12);
+    }
+
+    public static SkillTaxonomy loadDefault() {
+
+        InputStream in = SkillTaxonomy.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException("Missing skill taxonomy: " + DEFAULT_RESOURCE);
+        }
+
+        try (in) {
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static SkillTaxonomy load(InputStream in) throws IOException {
+
+        Map<String, String> patterns = new LinkedHashMap<>();
+        Map<String, String> names = new LinkedHashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            int eq = line.indexOf('=');
+            String head = (eq < 0 ? line : line.substring(0, eq)).trim();
+
+            boolean ambiguous = head.startsWith("[") && head.endsWith("]");
+            String canonical = normalize(ambiguous ? head.substring(1, head.length() - 1) : head);
+
+            names.put(canonical, canonical);
+            if (!ambiguous) {
+                patterns.put(canonical, canonical);
+            }
+
+            if (eq >= 0) {
+                for (String alias : line.substring(eq + 1).split(",")) {
+                    String name = normalize(alias);
+                    if (!name.isEmpty()) {
+                        names.put(name, canonical);
+                        patterns.put(name, canonical);
+                    }
+                }
+            }
+        }
+
+        return new SkillTaxonomy(patterns, names);
+    }
+
+    public Map<String, String> patterns() {
+        return patterns;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Maps any known name or alias to its canonical skill; unknown names
+     * come back normalized but otherwise unchanged.
+     */
+    public String canonical(String name) {
+        String key = normalize(name);
+        return names.getOrDefault(key, key);
+    }
+
+    public boolean isKnown(String name) {
+        return names.containsKey(normalize(name));
+    }
+
+    static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,244 @@
+package com.pranav.interviewai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Relays audio to Deepgram's live transcription WebSocket while the
+ * candidate is still speaking, and keeps the running transcript.
+ *
+ * Deepgram answers with interim results that are later replaced, and final
+ * ones that are not; the running transcript is the finals so far plus the
+ * latest interim. When recording stops, {@link Stream#finish} asks Deepgram
+ * to flush and close, which normally takes well under a second, since all
+ * but the last few hundred milliseconds of audio are already transcribed.
+ * If the socket fails or Deepgram does not close in time, the stream fails
+ * with {@link IncompleteTranscriptException}, so the caller can transcribe
+ * the stored recording instead of evaluating a cut-off answer.
+ */
+@Service
+public class StreamingTranscriptionService {
+
+    private static final String CLOSE_STREAM = "{\"type\":\"CloseStream\"}";
+
+    private final OkHttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String apiKey;
+    private final String url;
+    private final long finishTimeoutMs;
+
+    private final Timer finishTimer;
+    private final Counter completed;
+    private final Counter timedOut;
+    private final Counter failed;
+
+    public StreamingTranscriptionService(
+            MeterRegistry registry,
+            @Value("${deepgram.api.key:}") String apiKey,
+            @Value("${deepgram.streaming.url:wss://api.deepgram.com/v1/listen?interim_results=true&punctuate=true&smart_format=true&filler_words=true}") String url,
+            @Value("${deepgram.streaming.finish-timeout-ms:5000}") long finishTimeoutMs) {
+
+        this.apiKey = apiKey;
+        this.url = url;
+        this.finishTimeoutMs = finishTimeoutMs;
+
+        // a live stream is open for as long as the candidate speaks
+        this.client = new OkHttpClient.Builder()
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .pingInterval(20, TimeUnit.SECONDS)
+                .build();
+
+        this.finishTimer = Timer.builder("stt.stream.finish").register(registry);
+        this.completed = sessions(registry, "completed");
+        this.timedOut = sessions(registry, "timed-out");
+        this.failed = sessions(registry, "failed");
+    }
+
+    /**
+     * Opens a live transcription stream. {@code onTranscript} receives the
+     * running transcript after every update, on an OkHttp thread. Audio
+     * sent before the connection is up is queued, not lost.
+     */
+    public Stream open(Consumer<String> onTranscript) {
+
+        Stream stream = new Stream(onTranscript);
+
+        Request request = new Request.Builder()
+                .url(url)
+                .addHeader("Authorization", "Token " + apiKey)
+                .build();
+
+        stream.socket = client.newWebSocket(request, stream.listener());
+        return stream;
+    }
+
+    /**
+     * Live transcription ended without Deepgram's final close. {@link #heard}
+     * is what was transcribed up to then, possibly nothing.
+     */
+    public static class IncompleteTranscriptException extends IOException {
+
+        private final Transcript heard;
+
+        IncompleteTranscriptException(String message, Transcript heard, Throwable cause) {
+            super(message, cause);
+            this.heard = heard;
+        }
+
+        public Transcript heard() {
+            return heard;
+        }
+    }
+
+    public final class Stream {
+
+        private final Consumer<String> onTranscript;
+        // completes once Deepgram has closed its side, with the final transcript
+        private final CompletableFuture<Transcript> closed = new CompletableFuture<>();
+
+        private final StringBuilder finals = new StringBuilder();
+        // timed words of the final results only; interim words are replaced later
+        private final List<Transcript.Word> words = new ArrayList<>();
+        private String interim = "";
+        private volatile WebSocket socket;
+
+        private Stream(Consumer<String> onTranscript) {
+            this.onTranscript = onTranscript;
+        }
+
+        public boolean send(byte[] audio) {
+            return socket.send(ByteString.of(audio));
+        }
+
+        public synchronized String transcript() {
+            if (interim.isEmpty()) {
+                return finals.toString();
+            }
+            return finals.isEmpty() ? interim : finals + " " + interim;
+        }
+
+        /**
+         * Signals the end of the audio. Completes with the final transcript;
+         * fails with {@link IncompleteTranscriptException} if the stream
+         * failed, or if Deepgram has not closed within the timeout.
+         */
+        public CompletableFuture<Transcript> finish() {
+
+            long start = System.nanoTime();
+            socket.send(CLOSE_STREAM);
+
+            return closed
+                    .completeOnTimeout(null, finishTimeoutMs, TimeUnit.MILLISECONDS)
+                    .thenApply(text -> {
+                        finishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (text != null) {
+                            return text;
+                        }
+                        timedOut.increment();
+                        socket.cancel();
+                        throw new CompletionException(new IncompleteTranscriptException(
+                                "Live transcription did not finish in " + finishTimeoutMs + " ms", result(), null));
+                    });
+        }
+
+        public void cancel() {
+            socket.cancel();
+            closed.complete(result());
+        }
+
+        private synchronized Transcript result() {
+            return new Transcript(transcript(), words);
+        }
+
+        private WebSocketListener listener() {
+            return new WebSocketListener() {
+
+                @Override
+                public void onMessage(WebSocket webSocket, String text) {
+                    try {
+                        onResult(mapper.readTree(text));
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+
+                @Override
+                public void onClosing(WebSocket webSocket, int code, String reason) {
+                    webSocket.close(1000, null);
+                }
+
+                @Override
+                public void onClosed(WebSocket webSocket, int code, String reason) {
+                    // an interim never confirmed by a final still beats nothing
+                    if (closed.complete(result())) {
+                        completed.increment();
+                    }
+                }
+
+                @Override
+                public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+
+                    if (closed.completeExceptionally(
+                            new IncompleteTranscriptException("Live transcription failed", result(), t))) {
+                        t.printStackTrace();
+                        failed.increment();
+                    }
+                }
+            };
+        }
+
+        private void onResult(JsonNode message) {
+
+            if (!"Results".equals(message.path("type").asText())) {
+                return;
+            }
+
+            Transcript result = Transcript.from(message.path("channel").path("alternatives").path(0));
+            String text = result.text().trim();
+
+            String running;
+            synchronized (this) {
+                if (message.path("is_final").asBoolean()) {
+                    if (!text.isEmpty()) {
+                        if (!finals.isEmpty()) {
+                            finals.append(' ');
+                        }
+                        finals.append(text);
+                    }
+                    words.addAll(result.words());
+                    interim = "";
+                } else {
+                    interim = text;
+                }
+                running = transcript();
+            }
+
+            onTranscript.accept(running);
+        }
+    }
+
+    private static Counter sessions(MeterRegistry registry, String result) {
+        return Counter.builder("stt.stream.sessions")
+                .tag("result", result)
+                .register(registry);
+    }
+}
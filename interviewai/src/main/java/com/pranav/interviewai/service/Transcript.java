@@ -0,0 +1,48 @@
+package com.pranav.interviewai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the recognizer heard: the text, and each word with its timing (in
+ * seconds from the start of the recording) and confidence. {@code words}
+ * is empty when the recognizer gave none.
+ */
+public record Transcript(String text, List<Word> words) {
+
+    public record Word(String text, double start, double end, double confidence) {
+    }
+
+    public Transcript {
+        text = text == null ? "" : text;
+        words = List.copyOf(words);
+    }
+
+    public static Transcript of(String text) {
+        return new Transcript(text, List.of());
+    }
+
+    /**
+     * Reads one of Deepgram's {@code alternatives}; the batch and live APIs
+     * share the shape.
+     */
+    public static Transcript from(JsonNode alternative) {
+
+        List<Word> words = new ArrayList<>();
+        for (JsonNode word : alternative.path("words")) {
+            words.add(new Word(
+                    word.path("word").asText(),
+                    word.path("start").asDouble(),
+                    word.path("end").asDouble(),
+                    word.path("confidence").asDouble()));
+        }
+
+        return new Transcript(alternative.path("transcript").asText(), words);
+    }
+
+    public boolean isBlank() {
+        return text.trim().isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.TranscriptCacheEntry;
+import com.pranav.interviewai.repository.TranscriptCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transcripts keyed by the SHA-256 of the audio, so a resubmitted or
+ * retried recording is not sent to Deepgram again. A bounded in-process
+ * LRU sits in front of the {@code transcript_cache} collection, whose
+ * documents expire through a TTL index.
+ *
+ * Every hit credits the original transcription latency to
+ * {@code transcript.cache.saved}; {@code transcript.cache.hit.ratio} is
+ * hits over lookups since startup.
+ */
+@Service
+public class TranscriptCache {
+
+    private record Cached(Transcript transcript, long latencyMs) {
+    }
+
+    private final TranscriptCacheRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final BoundedCache<String, Cached> memory;
+    private final Duration ttl;
+
+    private final Counter memoryHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+    private final Counter savedSeconds;
+
+    public TranscriptCache(
+            TranscriptCacheRepository repository,
+            MongoTemplate mongoTemplate,
+            MeterRegistry registry,
+            @Value("${transcript-cache.max-entries:2000}") int maxEntries,
+            @Value("${transcript-cache.ttl-days:30}") long ttlDays) {
+
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.memory = new BoundedCache<>(maxEntries, ttl);
+
+        this.memoryHits = Counter.builder("transcript.cache.hits")
+                .tag("tier", "memory")
+                .register(registry);
+        this.mongoHits = Counter.builder("transcript.cache.hits")
+                .tag("tier", "mongo")
+                .register(registry);
+        this.misses = Counter.builder("transcript.cache.misses")
+                .register(registry);
+        this.savedSeconds = Counter.builder("transcript.cache.saved")
+                .baseUnit("seconds")
+                .register(registry);
+
+        FunctionCounter.builder("transcript.cache.evictions", memory, BoundedCache::evictionCount)
+                .register(registry);
+        Gauge.builder("transcript.cache.size", memory, BoundedCache::size)
+                .register(registry);
+        Gauge.builder("transcript.cache.hit.ratio", this, TranscriptCache::hitRatio)
+                .register(registry);
+    }
+
+    /**
+     * The cached transcript for a key, or null.
+     */
+    public Transcript get(String key) {
+
+        Cached cached = memory.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            savedSeconds.increment(cached.latencyMs() / 1000.0);
+            return cached.transcript();
+        }
+
+        try {
+            TranscriptCacheEntry stored = repository.findById(key).orElse(null);
+
+            if (stored != null) {
+                cached = new Cached(transcript(stored), stored.getLatencyMs());
+                mongoHits.increment();
+                savedSeconds.increment(cached.latencyMs() / 1000.0);
+                memory.put(key, cached);
+                return cached.transcript();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public void put(String key, Transcript transcript, long latencyMs) {
+
+        memory.put(key, new Cached(transcript, latencyMs));
+
+        List<TranscriptCacheEntry.Word> words = new ArrayList<>(transcript.words().size());
+        for (Transcript.Word word : transcript.words()) {
+            words.add(new TranscriptCacheEntry.Word(word.text(), word.start(), word.end(), word.confidence()));
+        }
+
+        try {
+            repository.save(new TranscriptCacheEntry(
+                    key, transcript.text(), words, latencyMs, LocalDateTime.now()));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(TranscriptCacheEntry.class)
+                    .createIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(ttl));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + mongoHits.count();
+        double lookups = hits + misses.count();
+        return lookups == 0 ? 0 : hits / lookups;
+    }
+
+    private static Transcript transcript(TranscriptCacheEntry entry) {
+
+        List<Transcript.Word> words = new ArrayList<>();
+        if (entry.getWords() != null) {
+            for (TranscriptCacheEntry.Word word : entry.getWords()) {
+                words.add(new Transcript.Word(word.getText(), word.getStart(), word.getEnd(), word.getConfidence()));
+            }
+        }
+
+        return new Transcript(entry.getText(), words);
+    }
+}
@@ -0,0 +1,227 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.entity.InterviewAttempt;
+import com.pranav.interviewai.entity.Question;
+import com.pranav.interviewai.entity.Session;
+import com.pranav.interviewai.entity.User;
+import com.pranav.interviewai.exception.LlmResponseException;
+import com.pranav.interviewai.exception.LlmTimeoutException;
+import com.pranav.interviewai.repository.InterviewAttemptRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores a spoken answer once its transcript is known and records the
+ * attempt. Shared by the upload endpoint and the streaming WebSocket, which
+ * differ only in how the transcript is produced.
+ */
+@Service
+@RequiredArgsConstructor
+public class VoiceEvaluationService {
+
+    public record VoiceAnswer(User user, Question question, Session session, String testId, int questionNumber) {
+    }
+
+    private final GroqService groqService;
+    private final InterviewAttemptRepository attemptRepository;
+    private final AudioStorageService audioStorage;
+    private final FluencyAnalyzer fluencyAnalyzer;
+
+    @Value("${interview.answer-deadline-ms:25000}")
+    private long answerDeadlineMs;
+
+    public long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(answerDeadlineMs);
+    }
+
+    /**
+     * The model answer needs neither the transcript nor the evaluation, so
+     * callers start it first and let it run alongside both.
+     */
+    public CompletableFuture<String> modelAnswer(Question question) {
+        return question.getModelAnswer() != null
+                ? CompletableFuture.completedFuture(question.getModelAnswer())
+                : groqService.generateModelAnswer(question.getQuestionText())
+                        .completeOnTimeout(null, answerDeadlineMs, TimeUnit.MILLISECONDS)
+                        .exceptionally(e -> null);
+    }
+
+    public CompletableFuture<Map<String, Object>> evaluate(
+            VoiceAnswer answer,
+            Transcript transcript,
+            String audioId,
+            CompletableFuture<String> modelAnswer,
+            long deadline) {
+
+        return evaluation(answer, transcript.text(), deadline).thenCombine(modelAnswer, (evaluated, model) ->
+                result(answer, transcript, audioId, evaluated, model));
+    }
+
+    /**
+     * The LLM's scores as raw JSON, or null if they did not arrive by
+     * {@code deadline}.
+     */
+    public CompletableFuture<String> evaluation(VoiceAnswer answer, String transcript, long deadline) {
+
+        long remainingMs = Math.max(0,
+                TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+
+        return groqService.evaluateVoiceAnswer(answer.question().getQuestionText(), transcript)
+                .completeOnTimeout(null, remainingMs, TimeUnit.MILLISECONDS)
+                .exceptionally(LlmTimeoutException::orNull);
+    }
+
+    /**
+     * Records the attempt and returns the response body; a null
+     * {@code evaluation} gives a partial result and records nothing.
+     * Fluency and clarity are computed here from the word timings.
+     */
+    public Map<String, Object> result(
+            VoiceAnswer answer,
+            Transcript transcript,
+            String audioId,
+            String evaluation,
+            String modelAnswer) {
+
+        FluencyAnalyzer.Fluency fluency = fluencyAnalyzer.analyze(transcript).orElse(null);
+
+        return evaluation == null
+                ? partialResult(transcript.text(), modelAnswer, fluency)
+                : saveAttempt(answer, transcript.text(), audioId, evaluation, modelAnswer, fluency);
+    }
+
+    // the evaluation missed the deadline: hand back what we have without
+    // recording an unscored attempt, so the candidate can simply resubmit
+    private Map<String, Object> partialResult(String transcript, String modelAnswer, FluencyAnalyzer.Fluency fluency) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("transcript", transcript);
+        body.put("modelAnswer", modelAnswer);
+        body.put("feedback", "Evaluation timed out");
+        body.put("partial", true);
+
+        if (fluency != null) {
+            body.put("fluencyScore", fluency.fluencyScore());
+            body.put("clarityScore", fluency.clarityScore());
+            body.put("delivery", fluency.details());
+        }
+
+        return body;
+    }
+
+    private Map<String, Object> saveAttempt(
+            VoiceAnswer answer,
+            String transcript,
+            String audioId,
+            String evaluation,
+            String modelAnswer,
+            FluencyAnalyzer.Fluency fluency) {
+
+        Question question = answer.question();
+        Session session = answer.session();
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode node;
+        try {
+            node = mapper.readTree(evaluation);
+        } catch (JsonProcessingException e) {
+            throw invalidEvaluation(e);
+        }
+
+        int contentScore = score(node, "contentScore");
+        int grammarScore = score(node, "grammarScore");
+        int keywordScore = score(node, "keywordScore");
+        if (!node.path("feedback").isTextual()) {
+            throw invalidEvaluation(null);
+        }
+
+        // without word timings there is nothing to measure delivery on, and
+        // the overall score is the mean of the scores there are
+        Integer fluencyScore = fluency != null ? fluency.fluencyScore() : null;
+        Integer clarityScore = fluency != null ? fluency.clarityScore() : null;
+
+        int overallScore = fluency != null
+                ? (contentScore + grammarScore + fluencyScore + keywordScore + clarityScore) / 5
+                : (contentScore + grammarScore + keywordScore) / 3;
+
+        String feedback = node.path("feedback").asText();
+        if (fluency != null) {
+            feedback = feedback + " " + fluency.summary();
+        }
+
+        InterviewAttempt attempt = new InterviewAttempt();
+        attempt.setUserId(answer.user().getId());
+
+        attempt.setTopic(session.getTopic());
+        attempt.setDifficulty(session.getDifficulty());
+
+        attempt.setQuestion(question.getQuestionText());
+        attempt.setUserAnswer(transcript);
+        attempt.setModelAnswer(modelAnswer);
+        attempt.setFeedback(feedback);
+
+        attempt.setAnswerType("VOICE");
+        attempt.setAudioUrl(audioStorage.url(audioId));
+
+        attempt.setVoiceScore(overallScore);
+        attempt.setContentScore(contentScore);
+        attempt.setGrammarScore(grammarScore);
+        attempt.setFluencyScore(fluencyScore);
+        attempt.setKeywordScore(keywordScore);
+        attempt.setClarityScore(clarityScore);
+
+        attempt.setTestId(answer.testId());
+        attempt.setQuestionNumber(answer.questionNumber());
+        attempt.setCreatedAt(LocalDateTime.now());
+
+        attemptRepository.save(attempt);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("transcript", transcript);
+        body.put("contentScore", contentScore);
+        body.put("grammarScore", grammarScore);
+        body.put("keywordScore", keywordScore);
+        body.put("overallScore", overallScore);
+        body.put("feedback", feedback);
+
+        if (fluency != null) {
+            body.put("fluencyScore", fluencyScore);
+            body.put("clarityScore", clarityScore);
+            body.put("delivery", fluency.details());
+        }
+
+        return body;
+    }
+
+    // a score may come back as "85" as well as 85; anything else is unusable
+    private static int score(JsonNode node, String field) {
+
+        JsonNode value = node.path(field);
+        if (value.isNumber()) {
+            return value.asInt();
+        }
+        if (value.isTextual() && value.asText().trim().matches("\\d{1,3}")) {
+            return Integer.parseInt(value.asText().trim());
+        }
+
+        throw invalidEvaluation(null);
+    }
+
+    private static LlmResponseException invalidEvaluation(Throwable cause) {
+        return new LlmResponseException(
+                LlmOperation.VOICE_EVALUATION.getKey(), 200,
+                "Invalid voice evaluation response", false, cause);
+    }
+}
@@ -0,0 +1,343 @@
+package com.pranav.interviewai.service;
+
+import com.pranav.interviewai.exception.JobQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates voice answers in the background, so the upload request returns
+ * as soon as the audio is stored.
+ *
+ * Jobs wait in a bounded queue for one of {@code interview.voice-jobs.workers}
+ * threads; a full queue refuses new jobs instead of piling them up. Each job
+ * goes queued, transcribed, evaluated, saved (or failed), and every stage is
+ * both kept on the job for polling and pushed to subscribers. Finished jobs
+ * are forgotten after {@code interview.voice-jobs.retention-ms}.
+ */
+@Service
+public class VoiceJobService {
+
+    public enum Stage {
+        QUEUED, TRANSCRIBED, EVALUATED, SAVED, FAILED;
+
+        boolean terminal() {
+            return this == SAVED || this == FAILED;
+        }
+
+        String eventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record Event(String name, Map<String, Object> data, boolean last) {
+    }
+
+    private final DeepgramService deepgramService;
+    private final VoiceEvaluationService voiceEvaluation;
+    private final AudioStorageService audioStorage;
+
+    private final ThreadPoolExecutor workers;
+    private final long retentionNanos;
+    private final Map<String, VoiceJob> jobs = new ConcurrentHashMap<>();
+
+    private final Timer queueTimer;
+    private final Timer transcribeTimer;
+    private final Timer evaluateTimer;
+    private final Timer saveTimer;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public VoiceJobService(
+            DeepgramService deepgramService,
+            VoiceEvaluationService voiceEvaluation,
+            AudioStorageService audioStorage,
+            MeterRegistry registry,
+            @Value("${interview.voice-jobs.workers:4}") int workers,
+            @Value("${interview.voice-jobs.queue-capacity:100}") int queueCapacity,
+            @Value("${interview.voice-jobs.retention-ms:600000}") long retentionMs) {
+
+        this.deepgramService = deepgramService;
+        this.voiceEvaluation = voiceEvaluation;
+        this.audioStorage = audioStorage;
+        this.retentionNanos = TimeUnit.MILLISECONDS.toNanos(retentionMs);
+
+        // workers wait on Deepgram and Groq, so their number is also the cap
+        // on concurrent outbound calls made for jobs
+        AtomicInteger threadId = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "voice-job-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        this.queueTimer = stageTimer(registry, "queue");
+        this.transcribeTimer = stageTimer(registry, "transcribe");
+        this.evaluateTimer = stageTimer(registry, "evaluate");
+        this.saveTimer = stageTimer(registry, "save");
+        this.completed = jobCounter(registry, "completed");
+        this.failed = jobCounter(registry, "failed");
+        this.rejected = jobCounter(registry, "rejected");
+
+        Gauge.builder("voice.jobs.queued", this.workers, pool -> pool.getQueue().size())
+                .register(registry);
+        Gauge.builder("voice.jobs.running", this.workers, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    /**
+     * Queues an answer whose audio is already stored. If the queue is full
+     * newly stored audio is deleted and {@link JobQueueFullException} thrown;
+     * it is likewise deleted if the job fails before saving an attempt.
+     */
+    public VoiceJob submit(VoiceEvaluationService.VoiceAnswer answer, AudioStorageService.StoredAudio audio) {
+
+        VoiceJob job = new VoiceJob(UUID.randomUUID().toString(), answer, audio);
+        jobs.put(job.id, job);
+        emit(job, Stage.QUEUED, Map.of("jobId", job.id));
+
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            release(audio);
+            rejected.increment();
+            throw new JobQueueFullException("Too many answers are being evaluated right now, please retry shortly");
+        }
+
+        return job;
+    }
+
+    /**
+     * The job, if it exists and belongs to {@code userId}.
+     */
+    public Optional<VoiceJob> find(String jobId, String userId) {
+        VoiceJob job = jobs.get(jobId);
+        return job != null && job.answer.user().getId().equals(userId)
+                ? Optional.of(job)
+                : Optional.empty();
+    }
+
+    /**
+     * Replays the stages reached so far to {@code listener}, then passes on
+     * new ones until the job finishes. A listener that throws is dropped.
+     * Returns a handle that unsubscribes.
+     */
+    public Runnable subscribe(VoiceJob job, Consumer<Event> listener) {
+
+        synchronized (job) {
+            for (Event event : job.events) {
+                if (!deliver(listener, event)) {
+                    return () -> {
+                    };
+                }
+            }
+            if (!job.stage.terminal()) {
+                job.listeners.add(listener);
+            }
+        }
+
+        return () -> {
+            synchronized (job) {
+                job.listeners.remove(listener);
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${interview.voice-jobs.purge-ms:60000}")
+    public void purgeFinished() {
+        long now = System.nanoTime();
+        jobs.values().removeIf(job -> job.finishedAt != 0 && now - job.finishedAt > retentionNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void run(VoiceJob job) {
+
+        long started = System.nanoTime();
+        queueTimer.record(started - job.queuedAt, TimeUnit.NANOSECONDS);
+
+        VoiceEvaluationService.VoiceAnswer answer = job.answer;
+        AudioStorageService.StoredAudio audio = job.audio;
+
+        // the deadline covers the work, not the wait in the queue
+        long deadline = voiceEvaluation.deadline();
+        CompletableFuture<String> modelAnswer = voiceEvaluation.modelAnswer(answer.question());
+        // once the attempt is saved it references the audio, failure or not
+        boolean saved = false;
+
+        try {
+            Transcript transcript = deepgramService.transcribeAsync(audio).join();
+            long transcribed = System.nanoTime();
+            transcribeTimer.record(transcribed - started, TimeUnit.NANOSECONDS);
+
+            if (transcript.isBlank()) {
+                release(audio);
+                fail(job, "No voice detected. Please speak before stopping recording.");
+                return;
+            }
+
+            job.transcript = transcript.text();
+            emit(job, Stage.TRANSCRIBED, Map.of("transcript", transcript.text()));
+
+            String evaluation = voiceEvaluation.evaluation(answer, transcript.text(), deadline).join();
+            String model = modelAnswer.join();
+            long evaluated = System.nanoTime();
+            evaluateTimer.record(evaluated - transcribed, TimeUnit.NANOSECONDS);
+
+            emit(job, Stage.EVALUATED, Map.of("partial", evaluation == null));
+
+            Map<String, Object> result =
+                    voiceEvaluation.result(answer, transcript, audio.id(), evaluation, model);
+            saved = true;
+            saveTimer.record(System.nanoTime() - evaluated, TimeUnit.NANOSECONDS);
+
+            job.result = result;
+            emit(job, Stage.SAVED, result);
+            completed.increment();
+
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            cause.printStackTrace();
+            if (!saved) {
+                release(audio);
+            }
+            fail(job, cause.getMessage() != null ? cause.getMessage() : "Could not evaluate answer");
+        }
+    }
+
+    // audio that failed before any attempt referenced it would never be
+    // played; only what this job stored itself is deleted, since a
+    // resubmitted recording may belong to an attempt already
+    private void release(AudioStorageService.StoredAudio audio) {
+        if (audio.created()) {
+            audioStorage.delete(audio.id());
+        }
+    }
+
+    private void fail(VoiceJob job, String message) {
+        job.error = message;
+        emit(job, Stage.FAILED, Map.of("error", message));
+        failed.increment();
+    }
+
+    private void emit(VoiceJob job, Stage stage, Map<String, Object> data) {
+
+        synchronized (job) {
+            job.stage = stage;
+            if (stage.terminal()) {
+                job.finishedAt = System.nanoTime();
+            }
+
+            Event event = new Event(stage.eventName(), data, stage.terminal());
+            job.events.add(event);
+            // a copy: a listener may unsubscribe from inside the callback
+            for (Consumer<Event> listener : List.copyOf(job.listeners)) {
+                if (!deliver(listener, event)) {
+                    job.listeners.remove(listener);
+                }
+            }
+
+            if (stage.terminal()) {
+                job.listeners.clear();
+            }
+        }
+    }
+
+    private static boolean deliver(Consumer<Event> listener, Event event) {
+        try {
+            listener.accept(event);
+            return true;
+        } catch (RuntimeException e) {
+            // the subscriber is gone; the job carries on
+            return false;
+        }
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("voice.jobs.stage")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private static Counter jobCounter(MeterRegistry registry, String result) {
+        return Counter.builder("voice.jobs")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public static final class VoiceJob {
+
+        private final String id;
+        private final VoiceEvaluationService.VoiceAnswer answer;
+        private final AudioStorageService.StoredAudio audio;
+        private final long queuedAt = System.nanoTime();
+
+        // guarded by the job's monitor
+        private final List<Event> events = new ArrayList<>();
+        private final List<Consumer<Event>> listeners = new ArrayList<>();
+
+        private volatile Stage stage;
+        private volatile String transcript;
+        private volatile Map<String, Object> result;
+        private volatile String error;
+        private volatile long finishedAt;
+
+        private VoiceJob(String id, VoiceEvaluationService.VoiceAnswer answer, AudioStorageService.StoredAudio audio) {
+            this.id = id;
+            this.answer = answer;
+            this.audio = audio;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public synchronized Map<String, Object> status() {
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("jobId", id);
+            body.put("status", stage.eventName());
+            if (transcript != null) {
+                body.put("transcript", transcript);
+            }
+            if (result != null) {
+                body.put("result", result);
+            }
+            if (error != null) {
+                body.put("error", error);
+            }
+
+            return body;
+        }
+    }
+}
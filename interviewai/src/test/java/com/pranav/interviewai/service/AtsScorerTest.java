@@ -0,0 +1,102 @@
+package com.pranav.interviewai.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Required / nice-to-have splitting and the weighted score.
+ */
+class AtsScorerTest {
+
+	private final SkillMatcher matcher = new SkillMatcher();
+	private final AtsScorer scorer = new AtsScorer(matcher, new SimpleMeterRegistry(), 3, 1, 4096);
+
+	@Test
+	void inlinePreferredBulletDoesNotOpenANiceSection() {
+
+		String jd = "Requirements:\n- Java\n- Preferred: Docker\n- Spring Boot\n- PostgreSQL\n- Kafka";
+
+		AtsScorer.JobProfile profile = profile(jd);
+
+		assertEquals(Set.of("java", "spring boot", "postgresql", "kafka"), required(profile));
+		assertEquals(Set.of("docker"), nice(profile));
+
+		AtsScorer.Score score = scorer.score(scorer.bits(List.of("Java", "Docker")), profile);
+
+		assertEquals(1, score.requiredMatched());
+		assertEquals(4, score.requiredTotal());
+		assertEquals(1, score.niceMatched());
+		// (3 * 1 + 1 * 1) * 100 / (3 * 4 + 1 * 1)
+		assertEquals(30, score.atsScore());
+	}
+
+	@Test
+	void headingAloneOpensANiceSection() {
+
+		String jd = "## Requirements\n- Java\n- Kafka\n\n**Nice to have:**\n- Docker\n- AWS\n\nSkills:\n- PostgreSQL";
+
+		AtsScorer.JobProfile profile = profile(jd);
+
+		assertEquals(Set.of("java", "kafka", "postgresql"), required(profile));
+		assertEquals(Set.of("docker", "aws"), nice(profile));
+	}
+
+	@Test
+	void skillMentionedBothWaysCountsAsRequired() {
+
+		String jd = "We use Java and Kafka daily.\nNice to have\n- Kafka Streams experience\n- Docker";
+
+		AtsScorer.JobProfile profile = profile(jd);
+
+		assertEquals(Set.of("java", "kafka"), required(profile));
+		assertEquals(Set.of("docker"), nice(profile));
+	}
+
+	@Test
+	void atsScoreAgreesWithScore() {
+
+		AtsScorer.JobProfile profile = profile("Requirements\n- Java\n- Spring Boot\nBonus\n- Docker");
+
+		for (List<String> resume : List.<List<String>>of(
+				List.of(),
+				List.of("java"),
+				List.of("springboot", "docker"),
+				List.of("Java", "Spring Boot", "Docker", "Python"))) {
+
+			long[] bits = scorer.bits(resume);
+			assertEquals(scorer.score(bits, profile).atsScore(), scorer.atsScore(bits, profile), resume.toString());
+		}
+	}
+
+	@Test
+	void stopsInterningUnknownSkillsAtTheCap() {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AtsScorer capped = new AtsScorer(matcher, registry, 3, 1, 2);
+
+		long[] first = capped.bits(List.of("Java", "in-house framework", "legacy dsl"));
+		long[] second = capped.bits(List.of("yet another tool", "legacy dsl"));
+
+		// taxonomy skills still get IDs; the third unknown name does not
+		assertEquals(Set.of("java", "in-house framework", "legacy dsl"), Set.copyOf(capped.names(first, first, true)));
+		assertEquals(List.of("legacy dsl"), capped.names(second, second, true));
+		assertEquals(1.0, registry.get("ats.scoring.skills.unscored").counter().count());
+	}
+
+	private AtsScorer.JobProfile profile(String jd) {
+		return scorer.profile(jd, ExtractedSkills.of(matcher.match(jd), List.of()));
+	}
+
+	private Set<String> required(AtsScorer.JobProfile profile) {
+		return Set.copyOf(scorer.names(profile.required(), profile.required(), true));
+	}
+
+	private Set<String> nice(AtsScorer.JobProfile profile) {
+		return Set.copyOf(scorer.names(profile.nice(), profile.nice(), true));
+	}
+}
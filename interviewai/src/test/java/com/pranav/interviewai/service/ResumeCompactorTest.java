@@ -0,0 +1,75 @@
+package com.pranav.interviewai.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeCompactorTest {
+
+	private final ResumeCompactor compactor = new ResumeCompactor(1500);
+
+	@Test
+	void keepsDottedSkillsFollowedByASlash() {
+
+		String text = String.join("\n",
+				"Technical Skills",
+				"Node.js/Express",
+				"ASP.NET/C#",
+				"React.js/Redux");
+
+		String compacted = single(compactor.compact(text));
+
+		assertTrue(compacted.contains("Node.js/Express"));
+		assertTrue(compacted.contains("ASP.NET/C#"));
+		assertTrue(compacted.contains("React.js/Redux"));
+	}
+
+	@Test
+	void dropsLinesThatHoldOnlyContactDetails() {
+
+		String text = String.join("\n",
+				"Pranav Kumar",
+				"pranav@example.com | +91 98765 43210",
+				"LinkedIn: linkedin.com/in/pranav | GitHub: github.com/pranav",
+				"https://pranav.dev",
+				"Skills",
+				"Java, Spring Boot, Kafka");
+
+		String compacted = single(compactor.compact(text));
+
+		assertEquals("Pranav Kumar\nSkills\nJava, Spring Boot, Kafka", compacted);
+	}
+
+	@Test
+	void keepsLinesWithSkillsBesideALink() {
+
+		String compacted = single(compactor.compact("Built a Kafka pipeline, code at github.com/pranav/pipeline"));
+
+		assertTrue(compacted.contains("Kafka"));
+	}
+
+	@Test
+	void dropsSkippedSections() {
+
+		String text = String.join("\n",
+				"Experience",
+				"Backend developer using Go and PostgreSQL",
+				"Hobbies",
+				"Chess, cricket",
+				"Education",
+				"B.Tech, Computer Science");
+
+		String compacted = single(compactor.compact(text));
+
+		assertFalse(compacted.contains("Chess"));
+		assertTrue(compacted.contains("PostgreSQL"));
+		assertTrue(compacted.contains("B.Tech"));
+	}
+
+	private static String single(ResumeCompactor.Compacted compacted) {
+		assertEquals(1, compacted.chunks().size());
+		return compacted.chunks().get(0);
+	}
+}
@@ -0,0 +1,256 @@
+package com.pranav.interviewai.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Generates a corpus of text-only and image-heavy PDFs plus DOCX files and
+ * reports MB/s, peak heap and peak RSS for the bounded parser next to the
+ * old in-heap approach. Not part of the normal build: run with
+ * {@code mvn test -Dtest=ResumeParserBenchmarkTest -Dbenchmark=true}.
+ * Peak RSS is read from /proc and only reported on Linux.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ResumeParserBenchmarkTest {
+
+	private static final int[] PDF_PAGES = {1, 2, 5, 20, 60};
+	private static final int DOCX_PARAGRAPHS = 4_000;
+	private static final int COPIES = 3;
+	private static final int LARGE_PAGES = 24;
+
+	private static Path corpus;
+
+	private final ResumeParserService parser =
+			new ResumeParserService(128L << 20, 512L << 20, 200, 8, 0);
+
+	@BeforeAll
+	static void generateCorpus() throws Exception {
+
+		corpus = Files.createTempDirectory("resume-corpus");
+		Random random = new Random(1);
+
+		for (int copy = 0; copy < COPIES; copy++) {
+			for (int pages : PDF_PAGES) {
+				writePdf(corpus.resolve("text-" + pages + "p-" + copy + ".pdf"), pages, false, random);
+				writePdf(corpus.resolve("images-" + pages + "p-" + copy + ".pdf"), pages, true, random);
+			}
+			writeDocx(corpus.resolve("resume-" + copy + ".docx"), random);
+		}
+
+		// the case that hurt: a scanned-looking resume with an image on every page
+		writePdf(corpus.resolve("large-images-" + LARGE_PAGES + "p.pdf"), LARGE_PAGES, true, random);
+	}
+
+	@AfterEach
+	void shutdownParser() {
+		parser.shutdown();
+	}
+
+	@AfterAll
+	static void deleteCorpus() throws Exception {
+		try (Stream<Path> files = Files.walk(corpus)) {
+			files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	@Test
+	void boundedVersusInHeap() throws Exception {
+
+		List<Path> files = new ArrayList<>();
+		try (Stream<Path> listing = Files.list(corpus)) {
+			listing.sorted().forEach(files::add);
+		}
+
+		long bytes = 0;
+		for (Path file : files) {
+			bytes += Files.size(file);
+		}
+
+		// warm-up, and a correctness check: both paths see the same words
+		for (Path file : files) {
+			assertEquals(words(inHeap(file)), words(bounded(file)), file.getFileName().toString());
+		}
+
+		run("in-heap", files, bytes, false);
+		run("bounded", files, bytes, true);
+	}
+
+	private void run(String label, List<Path> files, long bytes, boolean bounded) throws Exception {
+
+		System.gc();
+		resetPeaks();
+
+		long start = System.nanoTime();
+		for (Path file : files) {
+			if (bounded) {
+				bounded(file);
+			} else {
+				inHeap(file);
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%-8s %d files, %.1f MB in %.2fs: %.1f MB/s, peak heap %d MB, peak RSS %s%n",
+				label, files.size(), bytes / 1e6, seconds, bytes / 1e6 / seconds,
+				peakHeap() >> 20, peakRss());
+	}
+
+	private String bounded(Path file) throws Exception {
+		return parser.extractText(file.getFileName().toString(), file);
+	}
+
+	// the parser as it was: whole document on the heap, one thread
+	private static String inHeap(Path file) throws Exception {
+
+		try (InputStream is = Files.newInputStream(file)) {
+
+			if (file.toString().endsWith(".pdf")) {
+				try (PDDocument document = PDDocument.load(is)) {
+					return new PDFTextStripper().getText(document);
+				}
+			}
+
+			try (XWPFDocument doc = new XWPFDocument(is)) {
+				StringBuilder text = new StringBuilder();
+				doc.getParagraphs().forEach(p -> text.append(p.getText()).append("\n"));
+				return text.toString();
+			}
+		}
+	}
+
+	private static List<String> words(String text) {
+		return List.of(text.trim().split("\\s+"));
+	}
+
+	private static void writePdf(Path target, int pages, boolean images, Random random) throws Exception {
+
+		try (PDDocument document = new PDDocument()) {
+
+			PDImageXObject image = images ? LosslessFactory.createFromImage(document, noise(1200, 900, random)) : null;
+			boolean imagePerPage = images && pages == LARGE_PAGES;
+
+			for (int p = 0; p < pages; p++) {
+				PDPage page = new PDPage();
+				document.addPage(page);
+
+				if (imagePerPage && p > 0) {
+					image = LosslessFactory.createFromImage(document, noise(1200, 900, random));
+				}
+
+				try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+					if (image != null) {
+						content.drawImage(image, 50, 400, 300, 225);
+					}
+					content.beginText();
+					content.setFont(PDType1Font.HELVETICA, 10);
+					content.newLineAtOffset(50, 380);
+					for (int line = 0; line < 30; line++) {
+						content.showText(sentence(random));
+						content.newLineAtOffset(0, -12);
+					}
+					content.endText();
+				}
+			}
+
+			document.save(target.toFile());
+		}
+	}
+
+	private static void writeDocx(Path target, Random random) throws Exception {
+
+		try (XWPFDocument doc = new XWPFDocument();
+			 OutputStream out = Files.newOutputStream(target)) {
+
+			for (int i = 0; i < DOCX_PARAGRAPHS; i++) {
+				XWPFParagraph paragraph = doc.createParagraph();
+				paragraph.createRun().setText(sentence(random));
+			}
+
+			doc.write(out);
+		}
+	}
+
+	private static BufferedImage noise(int width, int height, Random random) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		return image;
+	}
+
+	private static final String[] WORDS = {
+			"designed", "built", "java", "spring", "kafka", "services", "latency",
+			"reduced", "team", "kubernetes", "postgresql", "react", "owned", "pipeline",
+	};
+
+	private static String sentence(Random random) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 12; i++) {
+			text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return text.toString().trim();
+	}
+
+	private static void resetPeaks() {
+		ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+		try {
+			// resets VmHWM on Linux
+			Files.writeString(Path.of("/proc/self/clear_refs"), "5");
+		} catch (Exception e) {
+			// not Linux, or not allowed: RSS is then the process-wide peak
+		}
+	}
+
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	private static String peakRss() {
+		try {
+			for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+				if (line.startsWith("VmHWM:")) {
+					return line.substring(6).trim();
+				}
+			}
+		} catch (Exception e) {
+			// fall through
+		}
+		return "n/a";
+	}
+}
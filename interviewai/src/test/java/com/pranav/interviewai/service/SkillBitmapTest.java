@@ -0,0 +1,132 @@
+package com.pranav.interviewai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link SkillBitmap} against {@link BitSet} under random adds,
+ * removes and intersections, across both container kinds and several
+ * high-16-bit groups.
+ */
+class SkillBitmapTest {
+
+	// spans three containers; dense enough that some pass the 4096 cut-over
+	private static final int RANGE = 3 * 65536;
+
+	@Test
+	void matchesBitSetUnderRandomOperations() {
+
+		Random random = new Random(7);
+
+		for (int round = 0; round < 20; round++) {
+
+			SkillBitmap bitmap = new SkillBitmap();
+			BitSet expected = new BitSet();
+
+			// alternate growth and shrink so containers convert both ways
+			int operations = 2_000 + random.nextInt(20_000);
+			for (int i = 0; i < operations; i++) {
+				int value = random.nextInt(RANGE);
+				if (random.nextInt(4) == 0) {
+					bitmap.remove(value);
+					expected.clear(value);
+				} else {
+					bitmap.add(value);
+					expected.set(value);
+				}
+			}
+
+			assertSame(expected, bitmap);
+
+			for (int probe = 0; probe < 1_000; probe++) {
+				int value = random.nextInt(RANGE);
+				assertEquals(expected.get(value), bitmap.contains(value), "contains " + value);
+			}
+		}
+	}
+
+	@Test
+	void intersectionMatchesBitSet() {
+
+		Random random = new Random(11);
+
+		for (int round = 0; round < 20; round++) {
+
+			SkillBitmap a = new SkillBitmap();
+			SkillBitmap b = new SkillBitmap();
+			BitSet expectedA = new BitSet();
+			BitSet expectedB = new BitSet();
+
+			fill(a, expectedA, random, random.nextInt(12_000));
+			fill(b, expectedB, random, random.nextInt(12_000));
+
+			BitSet expected = (BitSet) expectedA.clone();
+			expected.and(expectedB);
+
+			assertSame(expected, SkillBitmap.and(a, b));
+			// the inputs are left alone
+			assertSame(expectedA, a);
+			assertSame(expectedB, b);
+		}
+	}
+
+	@Test
+	void copyIsIndependent() {
+
+		SkillBitmap original = new SkillBitmap();
+		BitSet expected = new BitSet();
+		fill(original, expected, new Random(3), 6_000);
+
+		SkillBitmap copy = original.copy();
+		copy.add(RANGE + 1);
+		copy.remove(expected.nextSetBit(0));
+
+		assertSame(expected, original);
+		assertTrue(copy.contains(RANGE + 1));
+	}
+
+	@Test
+	void removingEverythingLeavesAnEmptyBitmap() {
+
+		SkillBitmap bitmap = new SkillBitmap();
+		for (int value = 0; value < 5_000; value++) {
+			bitmap.add(value * 3);
+		}
+		for (int value = 0; value < 5_000; value++) {
+			bitmap.remove(value * 3);
+		}
+
+		assertTrue(bitmap.isEmpty());
+		assertEquals(0, bitmap.cardinality());
+	}
+
+	private static void fill(SkillBitmap bitmap, BitSet expected, Random random, int count) {
+		for (int i = 0; i < count; i++) {
+			// cluster values so some containers become bitmaps
+			int value = random.nextBoolean() ? random.nextInt(8_192) : random.nextInt(RANGE);
+			bitmap.add(value);
+			expected.set(value);
+		}
+	}
+
+	private static void assertSame(BitSet expected, SkillBitmap actual) {
+
+		assertEquals(expected.cardinality(), actual.cardinality());
+
+		List<Integer> values = new ArrayList<>();
+		actual.forEach(values::add);
+
+		List<Integer> expectedValues = new ArrayList<>();
+		expected.stream().forEach(expectedValues::add);
+
+		// forEach visits in ascending order, like BitSet
+		assertEquals(expectedValues, values);
+	}
+}
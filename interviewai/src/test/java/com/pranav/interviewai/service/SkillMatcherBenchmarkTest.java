@@ -0,0 +1,170 @@
+package com.pranav.interviewai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and accuracy of the dictionary skill matcher against the LLM
+ * path, on generated resumes with known skills. Not part of the normal
+ * build: run with {@code mvn test -Dtest=SkillMatcherBenchmarkTest -Dbenchmark=true};
+ * the LLM half also needs {@code GROQ_API_KEY}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SkillMatcherBenchmarkTest {
+
+	private static final int DOCUMENTS = 2_000;
+	private static final int LLM_DOCUMENTS = 20;
+
+	private static final String[] FILLER = {
+			"Worked closely with product owners to deliver features on schedule.",
+			"Mentored junior engineers and led code reviews for the team.",
+			"Reduced p99 latency by a third after profiling the hot paths.",
+			"Owned the on-call rotation and wrote most of the runbooks.",
+			"Had to react quickly when the go to market date moved up.",
+			"Spent the rest of the spring semester on an internship.",
+			"Known to excel at explaining trade-offs to stakeholders.",
+	};
+
+	private final SkillMatcher matcher = new SkillMatcher();
+
+	private record Sample(String text, Set<String> skills) {}
+
+	@Test
+	void dictionaryMatcher() {
+
+		List<Sample> corpus = corpus(DOCUMENTS, new Random(42));
+		long bytes = corpus.stream().mapToLong(s -> s.text().length()).sum();
+
+		// warm up the JIT before timing
+		for (int i = 0; i < 3; i++) {
+			corpus.forEach(s -> matcher.match(s.text()));
+		}
+
+		List<Set<String>> found = new ArrayList<>();
+		long start = System.nanoTime();
+		for (Sample sample : corpus) {
+			found.add(matcher.match(sample.text()));
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		double[] accuracy = accuracy(corpus, found);
+		System.out.printf(
+				"dictionary: %d docs in %.3fs (%.0f docs/s, %.1f MB/s), precision %.3f, recall %.3f%n",
+				DOCUMENTS, seconds, DOCUMENTS / seconds, bytes / seconds / 1e6, accuracy[0], accuracy[1]);
+
+		assertTrue(accuracy[1] > 0.95, "dictionary recall dropped");
+	}
+
+	@Test
+	@EnabledIfEnvironmentVariable(named = "GROQ_API_KEY", matches = ".+")
+	void llmPath() {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		LlmScheduler scheduler = new LlmScheduler(30, 10, 0, 60_000, 200, 50, registry);
+		LlmClient llm = new LlmClient(
+				System.getenv("GROQ_API_KEY"), "llama-3.1-8b-instant",
+				8, 4, 300, 3_000, 3, 200, 2_000, false, 5, 10_000,
+				scheduler, new StandardEnvironment(), registry);
+		GroqService groq = new GroqService(llm, null, null);
+		ObjectMapper mapper = new ObjectMapper();
+
+		List<Sample> corpus = corpus(LLM_DOCUMENTS, new Random(7));
+
+		List<Set<String>> found = new ArrayList<>();
+		long start = System.nanoTime();
+		for (Sample sample : corpus) {
+			Set<String> skills = new HashSet<>();
+			try {
+				String response = groq.extractSkills(sample.text()).join()
+						.replace("```json", "").replace("```", "").trim();
+				for (JsonNode skill : mapper.readTree(response).path("skills")) {
+					skills.add(matcher.taxonomy().canonical(skill.asText()));
+				}
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+			found.add(skills);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		double[] accuracy = accuracy(corpus, found);
+		System.out.printf(
+				"llm: %d docs in %.3fs (%.2f docs/s), precision %.3f, recall %.3f%n",
+				LLM_DOCUMENTS, seconds, LLM_DOCUMENTS / seconds, accuracy[0], accuracy[1]);
+
+		llm.shutdown();
+		scheduler.shutdown();
+	}
+
+	private List<Sample> corpus(int size, Random random) {
+
+		List<Map.Entry<String, String>> patterns = new ArrayList<>(matcher.taxonomy().patterns().entrySet());
+		List<Sample> corpus = new ArrayList<>();
+
+		for (int d = 0; d < size; d++) {
+
+			StringBuilder text = new StringBuilder();
+			Set<String> skills = new HashSet<>();
+
+			int count = 8 + random.nextInt(8);
+			for (int i = 0; i < count; i++) {
+				Map.Entry<String, String> pattern = patterns.get(random.nextInt(patterns.size()));
+				skills.add(pattern.getValue());
+
+				text.append(FILLER[random.nextInt(FILLER.length)]).append('\n');
+				text.append("Built and operated services using ")
+						.append(randomCase(pattern.getKey(), random))
+						.append(random.nextBoolean() ? ", " : " and ")
+						.append("shipped them to production.\n");
+			}
+
+			corpus.add(new Sample(text.toString(), skills));
+		}
+
+		return corpus;
+	}
+
+	private static String randomCase(String text, Random random) {
+		return switch (random.nextInt(3)) {
+			case 0 -> text;
+			case 1 -> text.toUpperCase();
+			default -> Character.toUpperCase(text.charAt(0)) + text.substring(1);
+		};
+	}
+
+	// micro-averaged {precision, recall}
+	private static double[] accuracy(List<Sample> corpus, List<Set<String>> found) {
+
+		long truePositives = 0;
+		long predicted = 0;
+		long expected = 0;
+
+		for (int i = 0; i < corpus.size(); i++) {
+			Set<String> truth = corpus.get(i).skills();
+			Set<String> hits = new HashSet<>(found.get(i));
+			predicted += hits.size();
+			expected += truth.size();
+			hits.retainAll(truth);
+			truePositives += hits.size();
+		}
+
+		return new double[] {
+				predicted == 0 ? 0 : (double) truePositives / predicted,
+				expected == 0 ? 0 : (double) truePositives / expected,
+		};
+	}
+}
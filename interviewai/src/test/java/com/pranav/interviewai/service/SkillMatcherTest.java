@@ -0,0 +1,50 @@
+package com.pranav.interviewai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkillMatcherTest {
+
+	private final SkillMatcher matcher = new SkillMatcher();
+
+	@Test
+	void aliasesResolveToCanonicalNames() {
+
+		Set<String> skills = matcher.match("Built services with SpringBoot, Postgres and Apache Kafka on Amazon Web Services.");
+
+		assertEquals(List.of("spring boot", "postgresql", "kafka", "aws"), List.copyOf(skills));
+	}
+
+	@Test
+	void matchesOnlyOnWordBoundaries() {
+
+		// "java" inside "javascript" and "go" as an everyday word are not skills
+		Set<String> skills = matcher.match("Wrote JavaScript; had to go live in a week.");
+
+		assertEquals(Set.of("javascript"), skills);
+	}
+
+	@Test
+	void prefersTheLongestMatchAtAPosition() {
+
+		Set<String> skills = matcher.match("Shipped a React Native app and a React.js dashboard.");
+
+		assertTrue(skills.contains("react native"));
+		assertTrue(skills.contains("react"));
+		assertEquals(2, skills.size());
+	}
+
+	@Test
+	void canonicalizesLlmOutput() {
+
+		SkillTaxonomy taxonomy = matcher.taxonomy();
+
+		assertEquals("postgresql", taxonomy.canonical("Postgres"));
+		assertEquals("go", taxonomy.canonical("golang"));
+	}
+}
@@ -0,0 +1,108 @@
+package com.pranav.interviewai.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the streaming transcription relay against {@link StubSttServer}.
+ */
+class StreamingTranscriptionServiceTest {
+
+	private StubSttServer stt;
+	private StreamingTranscriptionService service;
+
+	@BeforeEach
+	void start() throws Exception {
+		stt = new StubSttServer();
+		service = new StreamingTranscriptionService(new SimpleMeterRegistry(), "test-key", stt.url(), 500);
+	}
+
+	@AfterEach
+	void stop() throws Exception {
+		stt.close();
+	}
+
+	@Test
+	void keepsRunningTranscriptAndFinishesWithFinals() throws Exception {
+
+		List<String> updates = new CopyOnWriteArrayList<>();
+		StreamingTranscriptionService.Stream stream = service.open(updates::add);
+
+		send(stream, "I have");
+		send(stream, "used Spring.");
+		send(stream, "Mostly for");
+		send(stream, "REST APIs");
+
+		Transcript transcript = stream.finish().get(5, TimeUnit.SECONDS);
+
+		assertEquals("I have used Spring. Mostly for REST APIs", transcript.text());
+		// timed words come from final results only, never twice
+		assertEquals(8, transcript.words().size());
+		assertEquals("spring", transcript.words().get(3).text());
+		assertEquals("I have", updates.get(0));
+		assertTrue(updates.contains("I have used Spring. Mostly for"));
+		assertEquals(List.of("Token test-key"), stt.authorizations());
+	}
+
+	@Test
+	void finishFailsWithRunningTranscriptOnTimeout() throws Exception {
+
+		stt.ignoreCloseStream = true;
+
+		List<String> updates = new CopyOnWriteArrayList<>();
+		StreamingTranscriptionService.Stream stream = service.open(updates::add);
+
+		send(stream, "Dependency injection");
+		waitFor(() -> !updates.isEmpty());
+
+		long start = System.nanoTime();
+		ExecutionException error = assertThrows(ExecutionException.class,
+				() -> stream.finish().get(5, TimeUnit.SECONDS));
+
+		// the caller transcribes the stored recording; the partial text is its last resort
+		StreamingTranscriptionService.IncompleteTranscriptException incomplete =
+				assertInstanceOf(StreamingTranscriptionService.IncompleteTranscriptException.class, error.getCause());
+		assertEquals("Dependency injection", incomplete.heard().text());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400);
+	}
+
+	@Test
+	void finishFailsWhenNothingWasHeardAndTheServiceIsDown() throws Exception {
+
+		stt.close();
+
+		StreamingTranscriptionService.Stream stream = service.open(text -> {
+		});
+
+		ExecutionException error = assertThrows(ExecutionException.class,
+				() -> stream.finish().get(5, TimeUnit.SECONDS));
+
+		StreamingTranscriptionService.IncompleteTranscriptException incomplete =
+				assertInstanceOf(StreamingTranscriptionService.IncompleteTranscriptException.class, error.getCause());
+		assertTrue(incomplete.heard().isBlank());
+	}
+
+	private static void send(StreamingTranscriptionService.Stream stream, String words) {
+		stream.send(words.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+}
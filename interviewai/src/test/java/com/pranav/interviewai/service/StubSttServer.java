@@ -0,0 +1,239 @@
+package com.pranav.interviewai.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A local stand-in for Deepgram's live transcription WebSocket, on the JDK
+ * alone, so streaming can be tested without the real service.
+ *
+ * Audio is faked as UTF-8 text: every binary message is appended to the
+ * current utterance and answered with an interim result for it, and a
+ * message ending in '.' finalizes the utterance. Words are timed 0.3s
+ * long with 0.1s gaps. {@code CloseStream} flushes what is pending as a
+ * final result, sends the metadata message and closes, as Deepgram does,
+ * unless {@link #ignoreCloseStream} is set.
+ */
+class StubSttServer implements AutoCloseable {
+
+	private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+	private final ServerSocket server;
+	private final List<Socket> clients = new CopyOnWriteArrayList<>();
+	private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+	volatile boolean ignoreCloseStream;
+
+	StubSttServer() throws IOException {
+		server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		Thread acceptor = new Thread(this::acceptLoop, "stub-stt");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	String url() {
+		return "ws://127.0.0.1:" + server.getLocalPort() + "/v1/listen";
+	}
+
+	List<String> authorizations() {
+		return authorizations;
+	}
+
+	@Override
+	public void close() throws IOException {
+		server.close();
+		for (Socket client : clients) {
+			client.close();
+		}
+	}
+
+	private void acceptLoop() {
+		while (!server.isClosed()) {
+			try {
+				Socket client = server.accept();
+				clients.add(client);
+				Thread handler = new Thread(() -> serve(client), "stub-stt-client");
+				handler.setDaemon(true);
+				handler.start();
+			} catch (IOException e) {
+				return;
+			}
+		}
+	}
+
+	private void serve(Socket client) {
+		try (client) {
+			DataInputStream in = new DataInputStream(client.getInputStream());
+			OutputStream out = client.getOutputStream();
+
+			handshake(in, out);
+
+			StringBuilder utterance = new StringBuilder();
+			List<String> words = new ArrayList<>();
+			double clock = 0;
+			while (true) {
+				int first = in.readUnsignedByte();
+				int opcode = first & 0x0F;
+				byte[] payload = readPayload(in);
+
+				switch (opcode) {
+					case 0x2 -> {
+						String text = new String(payload, StandardCharsets.UTF_8).strip();
+						if (!utterance.isEmpty()) {
+							utterance.append(' ');
+						}
+						utterance.append(text);
+						for (String word : text.split("\\s+")) {
+							words.add(word(word, clock));
+							clock += 0.4;
+						}
+						boolean last = text.endsWith(".");
+						sendText(out, result(utterance.toString(), words, last));
+						if (last) {
+							utterance.setLength(0);
+							words.clear();
+						}
+					}
+					case 0x1 -> {
+						String message = new String(payload, StandardCharsets.UTF_8);
+						if (message.contains("CloseStream") && !ignoreCloseStream) {
+							if (!utterance.isEmpty()) {
+								sendText(out, result(utterance.toString(), words, true));
+							}
+							sendText(out, "{\"type\":\"Metadata\",\"duration\":1.0}");
+							sendFrame(out, 0x8, new byte[] {0x03, (byte) 0xE8});
+						}
+					}
+					case 0x8 -> {
+						return;
+					}
+					case 0x9 -> sendFrame(out, 0xA, payload);
+					default -> {
+					}
+				}
+			}
+		} catch (IOException e) {
+			// client went away
+		}
+	}
+
+	private void handshake(DataInputStream in, OutputStream out) throws IOException {
+
+		String key = null;
+		String line;
+		while (!(line = readLine(in)).isEmpty()) {
+			int colon = line.indexOf(':');
+			if (colon < 0) {
+				continue;
+			}
+			String name = line.substring(0, colon).trim();
+			String value = line.substring(colon + 1).trim();
+			if (name.equalsIgnoreCase("Sec-WebSocket-Key")) {
+				key = value;
+			} else if (name.equalsIgnoreCase("Authorization")) {
+				authorizations.add(value);
+			}
+		}
+
+		String accept;
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1")
+					.digest((key + GUID).getBytes(StandardCharsets.US_ASCII));
+			accept = Base64.getEncoder().encodeToString(digest);
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+
+		out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+				+ "Upgrade: websocket\r\n"
+				+ "Connection: Upgrade\r\n"
+				+ "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b < 0) {
+				throw new IOException("Connection closed during handshake");
+			}
+			if (b != '\r') {
+				line.write(b);
+			}
+		}
+		return line.toString(StandardCharsets.US_ASCII);
+	}
+
+	// client frames are always masked
+	private static byte[] readPayload(DataInputStream in) throws IOException {
+
+		int second = in.readUnsignedByte();
+		long length = second & 0x7F;
+		if (length == 126) {
+			length = in.readUnsignedShort();
+		} else if (length == 127) {
+			length = in.readLong();
+		}
+
+		byte[] mask = new byte[4];
+		if ((second & 0x80) != 0) {
+			in.readFully(mask);
+		}
+
+		byte[] payload = new byte[(int) length];
+		in.readFully(payload);
+		for (int i = 0; i < payload.length; i++) {
+			payload[i] ^= mask[i & 3];
+		}
+
+		return payload;
+	}
+
+	private static String result(String transcript, List<String> words, boolean isFinal) {
+		return "{\"type\":\"Results\",\"is_final\":" + isFinal
+				+ ",\"channel\":{\"alternatives\":[{\"transcript\":\"" + escape(transcript)
+				+ "\",\"confidence\":0.99,\"words\":[" + String.join(",", words) + "]}]}}";
+	}
+
+	private static String word(String word, double start) {
+		return String.format(Locale.ROOT,
+				"{\"word\":\"%s\",\"start\":%.2f,\"end\":%.2f,\"confidence\":0.95}",
+				escape(word.replaceAll("\\p{Punct}", "").toLowerCase(Locale.ROOT)), start, start + 0.3);
+	}
+
+	private static String escape(String text) {
+		return text.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	private static void sendText(OutputStream out, String text) throws IOException {
+		sendFrame(out, 0x1, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static synchronized void sendFrame(OutputStream out, int opcode, byte[] payload) throws IOException {
+
+		out.write(0x80 | opcode);
+		if (payload.length < 126) {
+			out.write(payload.length);
+		} else {
+			out.write(126);
+			out.write(payload.length >>> 8);
+			out.write(payload.length & 0xFF);
+		}
+		out.write(payload);
+		out.flush();
+	}
+}